@@ -0,0 +1,85 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents;
+
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+
+/**
+ * PacketEvents instance for the benchmarks.
+ * {@link PacketEvents#create(Plugin)} needs a running server, so the instance is created without one.
+ * Everything depending on the server version (for example the {@link io.github.retrooper.packetevents.packettype.PacketType} lookups)
+ * is not available, the benchmarks only use the parts working without a server.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public final class BenchmarkEnvironment {
+    private BenchmarkEnvironment() {
+    }
+
+    /**
+     * Create the PacketEvents instance, unless it has already been created.
+     * Its plugin only offers a logger.
+     *
+     * @return PacketEvents instance.
+     */
+    public static synchronized PacketEvents install() {
+        if (PacketEvents.get() != null) {
+            return PacketEvents.get();
+        }
+        try {
+            Constructor<PacketEvents> constructor = PacketEvents.class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            PacketEvents packetEvents = constructor.newInstance();
+            Logger logger = Logger.getLogger("packetevents-benchmark");
+            Plugin plugin = (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getLogger":
+                                return logger;
+                            case "getName":
+                            case "toString":
+                                return "packetevents-benchmark";
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+            setStaticField("plugin", plugin);
+            setStaticField("instance", packetEvents);
+            return packetEvents;
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to create the PacketEvents instance", ex);
+        }
+    }
+
+    private static void setStaticField(String name, Object value) throws ReflectiveOperationException {
+        Field field = PacketEvents.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(null, value);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.event.impl;
+
+import io.github.retrooper.packetevents.BenchmarkEnvironment;
+import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.manager.PEEventManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processing of an incoming PLAY packet with pooled events compared to a new event for every packet.
+ * Run it with the gc profiler to compare the allocation rate ({@code gradle jmh -Pbenchmarks=PlayEventPoolBenchmark}).
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayEventPoolBenchmark {
+    private static final byte PACKET_ID = 0;
+    @Param({"false", "true"})
+    public boolean eventPooling;
+    private final Object packet = new Object();
+    private PacketListenerAbstract listener;
+
+    @Setup
+    public void setup() {
+        PacketEvents packetEvents = BenchmarkEnvironment.install();
+        packetEvents.getSettings().eventPooling(eventPooling);
+        listener = new PacketListenerAbstract() {
+            @Override
+            public void onPacketPlayReceive(PacketPlayReceiveEvent event) {
+                if (event.getNMSPacket().getRawNMSPacket() == null) {
+                    event.setCancelled(true);
+                }
+            }
+        };
+        packetEvents.getEventManager().registerListener(listener);
+    }
+
+    @TearDown
+    public void tearDown() {
+        PacketEvents.get().getEventManager().unregisterListener(listener);
+    }
+
+    @Benchmark
+    public void receive(Blackhole blackhole) {
+        PacketPlayReceiveEvent event = PlayEventPool.acquireReceiveEvent(null, null, packet, PACKET_ID);
+        try {
+            PEEventManager.callPacketEvent(event, null);
+            blackhole.consume(event.isCancelled());
+        } finally {
+            PlayEventPool.release(event);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.BenchmarkEnvironment;
+import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.PacketListenerPriority;
+import io.github.retrooper.packetevents.event.impl.PacketPlayReceiveEvent;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of an event to four listeners with the dispatch timings enabled and disabled.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchTimingsBenchmark {
+    private static final byte PACKET_ID = 0;
+    private static final PacketListenerPriority[] PRIORITIES = {PacketListenerPriority.LOW, PacketListenerPriority.NORMAL,
+            PacketListenerPriority.HIGH, PacketListenerPriority.MONITOR};
+    @Param({"false", "true"})
+    public boolean timings;
+    private final PacketListenerAbstract[] listeners = new PacketListenerAbstract[PRIORITIES.length];
+    private PacketPlayReceiveEvent event;
+
+    @Setup
+    public void setup() {
+        PacketEvents packetEvents = BenchmarkEnvironment.install();
+        packetEvents.getDispatchTimings().setEnabled(timings);
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new PacketListenerAbstract(PRIORITIES[i]) {
+                @Override
+                public void onPacketPlayReceive(PacketPlayReceiveEvent event) {
+                    if (event.getNMSPacket().getRawNMSPacket() == null) {
+                        event.setCancelled(true);
+                    }
+                }
+            };
+            packetEvents.getEventManager().registerListener(listeners[i]);
+        }
+        event = new PacketPlayReceiveEvent(null, null, new NMSPacket(new Object()));
+        event.assignPacketId(PACKET_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        PacketEvents packetEvents = PacketEvents.get();
+        for (PacketListenerAbstract listener : listeners) {
+            packetEvents.getEventManager().unregisterListener(listener);
+        }
+        packetEvents.getDispatchTimings().setEnabled(false);
+        packetEvents.getDispatchTimings().reset();
+    }
+
+    @Benchmark
+    public void dispatch(Blackhole blackhole) {
+        PEEventManager.callPacketEvent(event, null);
+        blackhole.consume(event.isCancelled());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.BenchmarkEnvironment;
+import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.impl.PacketPlayReceiveEvent;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of an event to a listener throwing an exception for every packet.
+ * With a failure threshold of zero the listener is never suspended, so every packet pays for the exception
+ * and its accounting. Otherwise the listener is suspended and skipped, apart from the periodic probes.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListenerFaultBenchmark {
+    private static final byte PACKET_ID = 0;
+    @Param({"0", "10"})
+    public int listenerFailureThreshold;
+    private PacketListenerAbstract listener;
+    private PacketPlayReceiveEvent event;
+
+    @Setup
+    public void setup() {
+        PacketEvents packetEvents = BenchmarkEnvironment.install();
+        packetEvents.getSettings().listenerFailureThreshold(listenerFailureThreshold);
+        listener = new PacketListenerAbstract() {
+            @Override
+            public void onPacketPlayReceive(PacketPlayReceiveEvent event) {
+                throw new IllegalStateException("Listener failure " + event.getPacketId());
+            }
+        };
+        packetEvents.getEventManager().registerListener(listener);
+        event = new PacketPlayReceiveEvent(null, null, new NMSPacket(new Object()));
+        event.assignPacketId(PACKET_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        PacketEvents.get().getEventManager().unregisterListener(listener);
+    }
+
+    @Benchmark
+    public void dispatch(Blackhole blackhole) {
+        PEEventManager.callPacketEvent(event, null);
+        blackhole.consume(event.isCancelled());
+    }
+}
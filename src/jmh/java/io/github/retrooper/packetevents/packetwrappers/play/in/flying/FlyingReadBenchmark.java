@@ -0,0 +1,89 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.packetwrappers.play.in.flying;
+
+import io.github.retrooper.packetevents.BenchmarkEnvironment;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.utils.vector.Vector3d;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing every field of a FLYING packet with {@link WrappedPacketInFlying#readAll(FlyingData)}
+ * and {@link WrappedPacketInFlying#writeAll(FlyingData)} compared to the single getters and setters.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlyingReadBenchmark {
+    private final FlyingData data = new FlyingData();
+    private WrappedPacketInFlying wrapper;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.install();
+        wrapper = new WrappedPacketInFlying(new NMSPacket(new FlyingPacket(1.5D, 64.0D, -3.25D, 90.0F, 12.5F)));
+    }
+
+    @Benchmark
+    public void getters(Blackhole blackhole) {
+        blackhole.consume(wrapper.getPosition());
+        blackhole.consume(wrapper.getYaw());
+        blackhole.consume(wrapper.getPitch());
+        blackhole.consume(wrapper.isOnGround());
+        blackhole.consume(wrapper.isMoving());
+        blackhole.consume(wrapper.isRotating());
+    }
+
+    @Benchmark
+    public FlyingData readAll() {
+        return wrapper.readAll(data);
+    }
+
+    @Benchmark
+    public void setters() {
+        wrapper.setPosition(new Vector3d(2.5D, 65.0D, -4.25D));
+        wrapper.setYaw(180.0F);
+        wrapper.setPitch(-12.5F);
+        wrapper.setOnGround(false);
+        wrapper.setMoving(true);
+        wrapper.setRotating(true);
+    }
+
+    @Benchmark
+    public void writeAll() {
+        data.x = 2.5D;
+        data.y = 65.0D;
+        data.z = -4.25D;
+        data.yaw = 180.0F;
+        data.pitch = -12.5F;
+        data.onGround = false;
+        data.moving = true;
+        data.rotating = true;
+        wrapper.writeAll(data);
+    }
+}
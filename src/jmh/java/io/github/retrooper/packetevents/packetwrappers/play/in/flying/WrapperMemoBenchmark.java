@@ -0,0 +1,68 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.packetwrappers.play.in.flying;
+
+import io.github.retrooper.packetevents.BenchmarkEnvironment;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.utils.vector.Vector3d;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the position and rotation of a FLYING packet through one wrapper shared by several listeners,
+ * with and without memoizing the wrapper.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WrapperMemoBenchmark {
+    @Param({"false", "true"})
+    public boolean memoize;
+    @Param({"1", "3"})
+    public int listeners;
+    private NMSPacket packet;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.install();
+        packet = new NMSPacket(new FlyingPacket(1.5D, 64.0D, -3.25D, 90.0F, 12.5F));
+    }
+
+    @Benchmark
+    public double readPositionAndRotation() {
+        WrappedPacketInFlying wrapper = new WrappedPacketInFlying(packet);
+        if (memoize) {
+            wrapper.memoize();
+        }
+        double sum = 0;
+        for (int i = 0; i < listeners; i++) {
+            Vector3d position = wrapper.getPosition();
+            sum += position.x + position.y + position.z + wrapper.getYaw() + wrapper.getPitch();
+        }
+        wrapper.flush();
+        return sum;
+    }
+}
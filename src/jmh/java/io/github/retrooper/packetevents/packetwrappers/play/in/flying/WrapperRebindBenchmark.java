@@ -0,0 +1,78 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.packetwrappers.play.in.flying;
+
+import io.github.retrooper.packetevents.BenchmarkEnvironment;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.utils.vector.Vector3d;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading FLYING packets through a new wrapper for every packet compared to one wrapper rebound to every packet.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WrapperRebindBenchmark {
+    private static final int PACKET_COUNT = 16;
+    private final NMSPacket[] packets = new NMSPacket[PACKET_COUNT];
+    private final Vector3d position = new Vector3d();
+    private WrappedPacketInFlying wrapper;
+    private int index;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.install();
+        for (int i = 0; i < PACKET_COUNT; i++) {
+            packets[i] = new NMSPacket(new FlyingPacket(i, 64.0D + i, -i, i * 22.5F, i - 8.0F));
+        }
+        wrapper = new WrappedPacketInFlying(packets[0]);
+    }
+
+    @Benchmark
+    public double newWrapper() {
+        WrappedPacketInFlying wrapper = new WrappedPacketInFlying(nextPacket());
+        return read(wrapper);
+    }
+
+    @Benchmark
+    public double rebind() {
+        wrapper.rebind(nextPacket());
+        return read(wrapper);
+    }
+
+    private NMSPacket nextPacket() {
+        NMSPacket packet = packets[index];
+        index = (index + 1) & (PACKET_COUNT - 1);
+        return packet;
+    }
+
+    private double read(WrappedPacketInFlying wrapper) {
+        wrapper.getPosition(position);
+        return position.x + position.y + position.z + wrapper.getYaw() + wrapper.getPitch();
+    }
+}
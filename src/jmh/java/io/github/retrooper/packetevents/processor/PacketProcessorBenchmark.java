@@ -0,0 +1,139 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.processor;
+
+import io.github.retrooper.packetevents.BenchmarkEnvironment;
+import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.impl.PacketPlayReceiveEvent;
+import io.github.retrooper.packetevents.packettype.PacketState;
+import io.github.retrooper.packetevents.packettype.PacketType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processing of an incoming PLAY packet the way the channel handler does it,
+ * compared to creating a holder and the events for every packet without checking the interest bitmaps first.
+ * A listener is registered either for the packet ID of the packet or for another packet ID.
+ * Run it with the gc profiler to compare the bytes allocated per packet ({@code gradle jmh -Pbenchmarks=PacketProcessorBenchmark}).
+ * Classifying a packet looks up its packet type, which needs a running server,
+ * so the benchmark assigns the packet ID and state to the holder itself.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PacketProcessorBenchmark {
+    private static final byte PACKET_ID = PacketType.Play.Client.CHAT;
+    private static final byte OTHER_PACKET_ID = PacketType.Play.Client.ARM_ANIMATION;
+    private static final MethodHandle PACKET_ID_SETTER = getSetter("packetID");
+    private static final MethodHandle STATE_SETTER = getSetter("state");
+    @Param({"false", "true"})
+    public boolean observed;
+    @Param({"false", "true"})
+    public boolean eventPooling;
+    private final Object packet = new Object();
+    private final PacketProcessorInternal.PacketData readData = new PacketProcessorInternal.PacketData();
+    private PacketProcessorInternal processor;
+    private PacketListenerAbstract listener;
+
+    private static MethodHandle getSetter(String name) {
+        try {
+            Field field = PacketProcessorInternal.PacketData.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectSetter(field);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        PacketEvents packetEvents = BenchmarkEnvironment.install();
+        packetEvents.getSettings().eventPooling(eventPooling);
+        processor = packetEvents.getInternalPacketProcessor();
+        listener = new PacketListenerAbstract() {
+            @Override
+            public void onPacketPlayReceive(PacketPlayReceiveEvent event) {
+                if (event.getNMSPacket().getRawNMSPacket() == null) {
+                    event.setCancelled(true);
+                }
+            }
+        };
+        listener.filterAll();
+        listener.addClientSidedPlayFilter(observed ? PACKET_ID : OTHER_PACKET_ID);
+        packetEvents.getEventManager().registerListener(listener);
+    }
+
+    @TearDown
+    public void tearDown() {
+        PacketEvents.get().getEventManager().unregisterListener(listener);
+    }
+
+    @Benchmark
+    public void channelRead(Blackhole blackhole) throws Throwable {
+        long receiveNanos = PacketEvents.get().getClock().nanoTime();
+        PacketProcessorInternal.PacketData data = readData.acquire();
+        try {
+            classify(data);
+            if (!processor.isReadObserved(data, null)) {
+                blackhole.consume(packet);
+                return;
+            }
+            if (processor.isReadIntercepted(data, null)) {
+                processor.read(null, null, data, receiveNanos, null);
+            }
+            if (data.packet != null) {
+                blackhole.consume(data.packet);
+                processor.postRead(null, null, data, null);
+            }
+        } finally {
+            data.release();
+        }
+    }
+
+    @Benchmark
+    public void channelReadWithoutInterestCheck(Blackhole blackhole) throws Throwable {
+        long receiveNanos = PacketEvents.get().getClock().nanoTime();
+        PacketProcessorInternal.PacketData data = new PacketProcessorInternal.PacketData().acquire();
+        classify(data);
+        processor.read(null, null, data, receiveNanos, null);
+        if (data.packet != null) {
+            blackhole.consume(data.packet);
+            processor.postRead(null, null, data, null);
+        }
+    }
+
+    private void classify(PacketProcessorInternal.PacketData data) throws Throwable {
+        data.packet = packet;
+        data.postAction = null;
+        PACKET_ID_SETTER.invokeExact(data, PACKET_ID);
+        STATE_SETTER.invokeExact(data, PacketState.PLAY);
+    }
+}
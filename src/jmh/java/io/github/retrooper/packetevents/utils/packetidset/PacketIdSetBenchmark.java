@@ -0,0 +1,95 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.utils.packetidset;
+
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allowance filter lookups of every packet ID with a {@link PacketIdSet} compared to the boxed Guava set
+ * the listener filters used before.
+ * {@link io.github.retrooper.packetevents.utils.immutableset.ImmutableSetCustom} depends on the server version,
+ * so the Guava set it wraps on 1.8 and newer is used directly.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PacketIdSetBenchmark {
+    private static final int PACKET_ID_COUNT = 256;
+    @Param({"1", "8", "32"})
+    public int filterSize;
+    private final byte[] packetIDs = new byte[PACKET_ID_COUNT];
+    private PacketIdSet packetIdSet;
+    private ImmutableSet<Byte> immutableSet;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        for (int i = 0; i < PACKET_ID_COUNT; i++) {
+            packetIDs[i] = (byte) i;
+        }
+        for (int i = PACKET_ID_COUNT - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = packetIDs[i];
+            packetIDs[i] = packetIDs[j];
+            packetIDs[j] = tmp;
+        }
+        packetIdSet = new PacketIdSet();
+        ImmutableSet.Builder<Byte> builder = ImmutableSet.builder();
+        for (int i = 0; i < filterSize; i++) {
+            byte packetID = (byte) random.nextInt(PACKET_ID_COUNT);
+            packetIdSet.add(packetID);
+            builder.add(packetID);
+        }
+        immutableSet = builder.build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKET_ID_COUNT)
+    public int packetIdSet() {
+        int allowed = 0;
+        for (byte packetID : packetIDs) {
+            if (packetIdSet.contains(packetID)) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKET_ID_COUNT)
+    public int immutableSet() {
+        int allowed = 0;
+        for (byte packetID : packetIDs) {
+            if (immutableSet.contains(packetID)) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+}
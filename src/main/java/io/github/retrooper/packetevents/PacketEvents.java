@@ -20,6 +20,7 @@ package io.github.retrooper.packetevents;
 
 import io.github.retrooper.packetevents.bstats.Metrics;
 import io.github.retrooper.packetevents.event.impl.PostPlayerInjectEvent;
+import io.github.retrooper.packetevents.event.manager.DispatchTimings;
 import io.github.retrooper.packetevents.event.manager.EventManager;
 import io.github.retrooper.packetevents.event.manager.PEEventManager;
 import io.github.retrooper.packetevents.exceptions.PacketEventsLoadFailureException;
@@ -32,6 +33,7 @@ import io.github.retrooper.packetevents.processor.BukkitEventProcessorInternal;
 import io.github.retrooper.packetevents.processor.PacketProcessorInternal;
 import io.github.retrooper.packetevents.settings.PacketEventsSettings;
 import io.github.retrooper.packetevents.updatechecker.UpdateChecker;
+import io.github.retrooper.packetevents.utils.clock.PacketClock;
 import io.github.retrooper.packetevents.utils.entityfinder.EntityFinderUtils;
 import io.github.retrooper.packetevents.utils.guava.GuavaUtils;
 import io.github.retrooper.packetevents.utils.netty.bytebuf.ByteBufUtil;
@@ -67,6 +69,7 @@ public final class PacketEvents implements Listener, EventManager {
     private final AtomicBoolean injectorReady = new AtomicBoolean();
     private String handlerName;
     private PacketEventsSettings settings = new PacketEventsSettings();
+    private volatile PacketClock clock = PacketClock.SYSTEM;
     private ByteBufUtil byteBufUtil;
     private UpdateChecker updateChecker;
     private volatile boolean loading, loaded;
@@ -318,6 +321,34 @@ public final class PacketEvents implements Listener, EventManager {
         return eventManager;
     }
 
+    /**
+     * Listener dispatch timings.
+     * Enable them to find out how long every packet listener takes to process each packet type.
+     *
+     * @return Dispatch timings of the dynamic event manager.
+     */
+    public DispatchTimings getDispatchTimings() {
+        return PEEventManager.DISPATCH_TIMINGS;
+    }
+
+    /**
+     * Clock the packet event timestamps are read from.
+     *
+     * @return Clock, {@link PacketClock#SYSTEM} by default.
+     */
+    public PacketClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Replace the clock the packet event timestamps are read from.
+     *
+     * @param clock {@link PacketClock}
+     */
+    public void setClock(PacketClock clock) {
+        this.clock = clock;
+    }
+
     public PlayerUtils getPlayerUtils() {
         return playerUtils;
     }
@@ -18,8 +18,11 @@
 
 package io.github.retrooper.packetevents.event;
 
-
+import io.github.retrooper.packetevents.PacketEvents;
 import io.github.retrooper.packetevents.event.eventtypes.CallableEvent;
+import io.github.retrooper.packetevents.utils.clock.PacketClock;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * An event in both of PacketEvents' event systems.
@@ -28,15 +31,30 @@ import io.github.retrooper.packetevents.event.eventtypes.CallableEvent;
  * @since 1.2.6
  */
 public abstract class PacketEvent implements CallableEvent {
-    private long timestamp = System.currentTimeMillis();
+    private long timestamp;
+    private boolean timestampResolved;
+    private long nanoTimestamp;
+    private boolean nanoTimestampResolved;
 
     /**
-     * Timestamp of when the PacketEvent was created.
-     * Basically timestamp of the packet.
+     * Timestamp of the packet in milliseconds.
+     * If the event knows its {@link #getNanoTimestamp()}, the timestamp is derived from it,
+     * so packet events dispatched by PacketEvents carry the time they were received or created at.
+     * Otherwise, like for events created by you, it is the time of the first call, which is cached afterwards.
      *
      * @return Packet timestamp in milliseconds.
+     * @see PacketEvents#getClock()
      */
     public long getTimestamp() {
+        if (!timestampResolved) {
+            PacketClock clock = PacketEvents.get().getClock();
+            long timestamp = clock.currentTimeMillis();
+            if (nanoTimestampResolved) {
+                timestamp -= TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - nanoTimestamp);
+            }
+            this.timestamp = timestamp;
+            this.timestampResolved = true;
+        }
         return timestamp;
     }
 
@@ -47,6 +65,43 @@ public abstract class PacketEvent implements CallableEvent {
      */
     public void setTimestamp(final long timestamp) {
         this.timestamp = timestamp;
+        this.timestampResolved = true;
+    }
+
+    /**
+     * Precise timestamp of the packet.
+     * Incoming packets are stamped as soon as they reach the channel handler of PacketEvents,
+     * the other packet events PacketEvents dispatches are stamped before the first listener is called.
+     * Events without such a timestamp, like events created by you, are stamped on the first call.
+     * Only the difference between two nano timestamps is meaningful, like with {@link System#nanoTime()}.
+     *
+     * @return Packet timestamp in nanoseconds of {@link PacketClock#nanoTime()}.
+     */
+    public long getNanoTimestamp() {
+        if (!nanoTimestampResolved) {
+            this.nanoTimestamp = PacketEvents.get().getClock().nanoTime();
+            this.nanoTimestampResolved = true;
+        }
+        return nanoTimestamp;
+    }
+
+    /**
+     * Setter for the precise timestamp.
+     *
+     * @param nanoTimestamp Packet timestamp in nanoseconds of {@link PacketClock#nanoTime()}.
+     */
+    public void setNanoTimestamp(final long nanoTimestamp) {
+        this.nanoTimestamp = nanoTimestamp;
+        this.nanoTimestampResolved = true;
+    }
+
+    /**
+     * Forget both timestamps, so that they are computed again.
+     * Only used by pooled events, which are reused for every packet of their event loop.
+     */
+    protected void resetTimestamps() {
+        this.timestampResolved = false;
+        this.nanoTimestampResolved = false;
     }
 
     public void callPacketEventExternal(final PacketListenerAbstract listener) {
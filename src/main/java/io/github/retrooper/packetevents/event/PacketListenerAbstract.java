@@ -19,8 +19,9 @@
 package io.github.retrooper.packetevents.event;
 
 import io.github.retrooper.packetevents.event.impl.*;
+import io.github.retrooper.packetevents.event.manager.PEEventManager;
 import io.github.retrooper.packetevents.event.priority.PacketEventPriority;
-import io.github.retrooper.packetevents.utils.immutableset.ImmutableSetCustom;
+import io.github.retrooper.packetevents.utils.packetidset.PacketIdSet;
 
 /**
  * Abstract packet listener.
@@ -30,14 +31,15 @@ import io.github.retrooper.packetevents.utils.immutableset.ImmutableSetCustom;
  */
 public abstract class PacketListenerAbstract {
     private final PacketListenerPriority priority;
-    public ImmutableSetCustom<Byte> serverSidedStatusAllowance;
-    public ImmutableSetCustom<Byte> serverSidedLoginAllowance;
-    public ImmutableSetCustom<Byte> serverSidedPlayAllowance;
+    private final boolean ignoreCancelled;
+    private PacketIdSet serverSidedStatusAllowance;
+    private PacketIdSet serverSidedLoginAllowance;
+    private PacketIdSet serverSidedPlayAllowance;
 
-    public ImmutableSetCustom<Byte> clientSidedStatusAllowance;
-    public ImmutableSetCustom<Byte> clientSidedHandshakeAllowance;
-    public ImmutableSetCustom<Byte> clientSidedLoginAllowance;
-    public ImmutableSetCustom<Byte> clientSidedPlayAllowance;
+    private PacketIdSet clientSidedStatusAllowance;
+    private PacketIdSet clientSidedHandshakeAllowance;
+    private PacketIdSet clientSidedLoginAllowance;
+    private PacketIdSet clientSidedPlayAllowance;
 
     @Deprecated
     public PacketListenerAbstract(final PacketEventPriority priority) {
@@ -45,7 +47,22 @@ public abstract class PacketListenerAbstract {
     }
 
     public PacketListenerAbstract(PacketListenerPriority priority) {
+        this(priority, false);
+    }
+
+    /**
+     * Create a packet listener.
+     * A listener ignoring cancelled events is not called for a cancellable event
+     * that has already been cancelled by a listener with a lower priority.
+     * Once an event is cancelled, the dynamic event manager only calls the remaining listeners
+     * that do not ignore cancelled events, for example {@link PacketListenerPriority#MONITOR} listeners.
+     *
+     * @param priority        Priority of the listener.
+     * @param ignoreCancelled Should the listener skip cancelled events?
+     */
+    public PacketListenerAbstract(PacketListenerPriority priority, boolean ignoreCancelled) {
         this.priority = priority;
+        this.ignoreCancelled = ignoreCancelled;
         this.serverSidedStatusAllowance = null;
         this.serverSidedLoginAllowance = null;
         this.serverSidedPlayAllowance = null;
@@ -65,6 +82,16 @@ public abstract class PacketListenerAbstract {
         return priority;
     }
 
+    /**
+     * Does the listener skip cancellable events that have already been cancelled?
+     *
+     * @return Is the listener ignoring cancelled events?
+     * @see #PacketListenerAbstract(PacketListenerPriority, boolean)
+     */
+    public boolean isIgnoringCancelled() {
+        return ignoreCancelled;
+    }
+
     public void onPacketStatusReceive(PacketStatusReceiveEvent event) {
     }
 
@@ -89,6 +116,17 @@ public abstract class PacketListenerAbstract {
     public void onPostPacketPlayReceive(PostPacketPlayReceiveEvent event) {
     }
 
+    /**
+     * Receive the incoming PLAY packets of a whole netty read cycle at once.
+     * PacketEvents only collects batches while a registered listener overrides this method.
+     * Asynchronous listeners receive the batches on their executor.
+     * Listeners scoped to a player never receive batches.
+     *
+     * @param event {@link PacketPlayReceiveBatchEvent}
+     */
+    public void onPacketPlayReceiveBatch(PacketPlayReceiveBatchEvent event) {
+    }
+
     public void onPostPacketPlaySend(PostPacketPlaySendEvent event) {
     }
 
@@ -104,98 +142,173 @@ public abstract class PacketListenerAbstract {
     public void onPacketEventExternal(PacketEvent event) {
     }
 
+    /**
+     * IDs of the outgoing STATUS packets the listener is interested in.
+     * The set must not be modified, use the filter methods instead.
+     *
+     * @return Allowed packet IDs, or null if the listener wants every outgoing STATUS packet.
+     */
+    public PacketIdSet getServerSidedStatusAllowance() {
+        return serverSidedStatusAllowance;
+    }
+
+    /**
+     * IDs of the outgoing LOGIN packets the listener is interested in.
+     * The set must not be modified, use the filter methods instead.
+     *
+     * @return Allowed packet IDs, or null if the listener wants every outgoing LOGIN packet.
+     */
+    public PacketIdSet getServerSidedLoginAllowance() {
+        return serverSidedLoginAllowance;
+    }
+
+    /**
+     * IDs of the outgoing PLAY packets the listener is interested in.
+     * The set must not be modified, use the filter methods instead.
+     *
+     * @return Allowed packet IDs, or null if the listener wants every outgoing PLAY packet.
+     */
+    public PacketIdSet getServerSidedPlayAllowance() {
+        return serverSidedPlayAllowance;
+    }
+
+    /**
+     * IDs of the incoming STATUS packets the listener is interested in.
+     * The set must not be modified, use the filter methods instead.
+     *
+     * @return Allowed packet IDs, or null if the listener wants every incoming STATUS packet.
+     */
+    public PacketIdSet getClientSidedStatusAllowance() {
+        return clientSidedStatusAllowance;
+    }
+
+    /**
+     * IDs of the incoming HANDSHAKE packets the listener is interested in.
+     * The set must not be modified, use the filter methods instead.
+     *
+     * @return Allowed packet IDs, or null if the listener wants every incoming HANDSHAKE packet.
+     */
+    public PacketIdSet getClientSidedHandshakeAllowance() {
+        return clientSidedHandshakeAllowance;
+    }
+
+    /**
+     * IDs of the incoming LOGIN packets the listener is interested in.
+     * The set must not be modified, use the filter methods instead.
+     *
+     * @return Allowed packet IDs, or null if the listener wants every incoming LOGIN packet.
+     */
+    public PacketIdSet getClientSidedLoginAllowance() {
+        return clientSidedLoginAllowance;
+    }
+
+    /**
+     * IDs of the incoming PLAY packets the listener is interested in.
+     * The set must not be modified, use the filter methods instead.
+     *
+     * @return Allowed packet IDs, or null if the listener wants every incoming PLAY packet.
+     */
+    public PacketIdSet getClientSidedPlayAllowance() {
+        return clientSidedPlayAllowance;
+    }
+
     public final void addServerSidedStatusFilter(Byte... statusPacketIDs) {
-        if (this.serverSidedStatusAllowance == null) {
-            this.serverSidedStatusAllowance = new ImmutableSetCustom<>(statusPacketIDs);
-        } else {
-            this.serverSidedStatusAllowance.addAll(statusPacketIDs);
-        }
+        this.serverSidedStatusAllowance = addAll(this.serverSidedStatusAllowance, statusPacketIDs);
+
+        PEEventManager.refreshListener(this);
     }
 
     public final void addServerSidedLoginFilter(Byte... loginPacketIDs) {
-        if (this.serverSidedLoginAllowance == null) {
-            this.serverSidedLoginAllowance = new ImmutableSetCustom<>(loginPacketIDs);
-        } else {
-            this.serverSidedLoginAllowance.addAll(loginPacketIDs);
-        }
+        this.serverSidedLoginAllowance = addAll(this.serverSidedLoginAllowance, loginPacketIDs);
+
+        PEEventManager.refreshListener(this);
     }
 
     public final void addServerSidedPlayFilter(Byte... playPacketIDs) {
-        if (this.serverSidedPlayAllowance == null) {
-            this.serverSidedPlayAllowance = new ImmutableSetCustom<>(playPacketIDs);
-        } else {
-            this.serverSidedPlayAllowance.addAll(playPacketIDs);
-        }
+        this.serverSidedPlayAllowance = addAll(this.serverSidedPlayAllowance, playPacketIDs);
+
+        PEEventManager.refreshListener(this);
     }
 
     public final void addClientSidedStatusFilter(Byte... statusPacketIDs) {
-        if (this.clientSidedStatusAllowance == null) {
-            this.clientSidedStatusAllowance = new ImmutableSetCustom<>(statusPacketIDs);
-        } else {
-            this.clientSidedStatusAllowance.addAll(statusPacketIDs);
-        }
+        this.clientSidedStatusAllowance = addAll(this.clientSidedStatusAllowance, statusPacketIDs);
+
+        PEEventManager.refreshListener(this);
     }
 
     public final void addClientSidedHandshakeFilter(Byte... handshakePacketIDs) {
-        if (this.clientSidedHandshakeAllowance == null) {
-            this.clientSidedHandshakeAllowance = new ImmutableSetCustom<>(handshakePacketIDs);
-        } else {
-            this.clientSidedHandshakeAllowance.addAll(handshakePacketIDs);
-        }
+        this.clientSidedHandshakeAllowance = addAll(this.clientSidedHandshakeAllowance, handshakePacketIDs);
+
+        PEEventManager.refreshListener(this);
     }
 
     public final void addClientSidedLoginFilter(Byte... loginPacketIDs) {
-        if (this.clientSidedLoginAllowance == null) {
-            this.clientSidedLoginAllowance = new ImmutableSetCustom<>(loginPacketIDs);
-        } else {
-            this.clientSidedLoginAllowance.addAll(loginPacketIDs);
-        }
+        this.clientSidedLoginAllowance = addAll(this.clientSidedLoginAllowance, loginPacketIDs);
+
+        PEEventManager.refreshListener(this);
     }
 
     public final void addClientSidedPlayFilter(Byte... playPacketIDs) {
-        if (this.clientSidedPlayAllowance == null) {
-            this.clientSidedPlayAllowance = new ImmutableSetCustom<>(playPacketIDs);
-        } else {
-            this.clientSidedPlayAllowance.addAll(playPacketIDs);
+        this.clientSidedPlayAllowance = addAll(this.clientSidedPlayAllowance, playPacketIDs);
+
+        PEEventManager.refreshListener(this);
+    }
+
+    private static PacketIdSet addAll(PacketIdSet allowance, Byte[] packetIDs) {
+        if (allowance == null) {
+            allowance = new PacketIdSet();
+        }
+        for (Byte packetID : packetIDs) {
+            allowance.add(packetID);
         }
+        return allowance;
     }
 
     public final void filterAll() {
-        filterServerSidedStatus();
-        filterServerSidedLogin();
-        filterServerSidedPlay();
+        //Rebuild the dispatch tables once, not once per filter.
+        this.serverSidedStatusAllowance = new PacketIdSet();
+        this.serverSidedLoginAllowance = new PacketIdSet();
+        this.serverSidedPlayAllowance = new PacketIdSet();
 
-        filterClientSidedStatus();
-        filterClientSidedHandshake();
-        filterClientSidedLogin();
-        filterClientSidedPlay();
+        this.clientSidedStatusAllowance = new PacketIdSet();
+        this.clientSidedHandshakeAllowance = new PacketIdSet();
+        this.clientSidedLoginAllowance = new PacketIdSet();
+        this.clientSidedPlayAllowance = new PacketIdSet();
+        PEEventManager.refreshListener(this);
     }
 
     public final void filterServerSidedStatus() {
-        this.serverSidedStatusAllowance = new ImmutableSetCustom<>();
+        this.serverSidedStatusAllowance = new PacketIdSet();
+        PEEventManager.refreshListener(this);
     }
 
     public final void filterServerSidedLogin() {
-        this.serverSidedLoginAllowance = new ImmutableSetCustom<>();
+        this.serverSidedLoginAllowance = new PacketIdSet();
+        PEEventManager.refreshListener(this);
     }
 
     public final void filterServerSidedPlay() {
-        this.serverSidedPlayAllowance = new ImmutableSetCustom<>();
+        this.serverSidedPlayAllowance = new PacketIdSet();
+        PEEventManager.refreshListener(this);
     }
 
     public final void filterClientSidedStatus() {
-        this.clientSidedStatusAllowance = new ImmutableSetCustom<>();
+        this.clientSidedStatusAllowance = new PacketIdSet();
+        PEEventManager.refreshListener(this);
     }
 
     public final void filterClientSidedHandshake() {
-        this.clientSidedHandshakeAllowance = new ImmutableSetCustom<>();
+        this.clientSidedHandshakeAllowance = new PacketIdSet();
+        PEEventManager.refreshListener(this);
     }
 
     public final void filterClientSidedLogin() {
-        this.clientSidedLoginAllowance = new ImmutableSetCustom<>();
+        this.clientSidedLoginAllowance = new PacketIdSet();
+        PEEventManager.refreshListener(this);
     }
 
     public final void filterClientSidedPlay() {
-        this.clientSidedPlayAllowance = new ImmutableSetCustom<>();
+        this.clientSidedPlayAllowance = new PacketIdSet();
+        PEEventManager.refreshListener(this);
     }
 }
@@ -0,0 +1,37 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event;
+
+import io.github.retrooper.packetevents.packetwrappers.WrappedPacket;
+
+/**
+ * Handler of a typed packet subscription.
+ * Subscribers of the same packet share one wrapper per event, see {@link io.github.retrooper.packetevents.event.eventtypes.NMSPacketEvent#getWrapper(Class, java.util.function.Function)}.
+ *
+ * @param <E> Type of the packet event.
+ * @param <W> Type of the packet wrapper.
+ * @author retrooper
+ * @see io.github.retrooper.packetevents.event.manager.EventManager#onPlayReceive(byte, java.util.function.Function, PacketSubscriber)
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface PacketSubscriber<E extends PacketEvent, W extends WrappedPacket> {
+    void onPacket(E event, W wrapper);
+}
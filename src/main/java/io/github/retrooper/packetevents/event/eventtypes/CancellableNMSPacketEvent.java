@@ -20,8 +20,6 @@ package io.github.retrooper.packetevents.event.eventtypes;
 
 import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
 
-import java.net.InetSocketAddress;
-
 public abstract class CancellableNMSPacketEvent extends NMSPacketEvent implements CancellableEvent {
     private boolean cancelled;
 
@@ -29,13 +27,22 @@ public abstract class CancellableNMSPacketEvent extends NMSPacketEvent implement
         super(channel, packet);
     }
 
+    @Override
+    protected void reset(Object channel, NMSPacket packet) {
+        super.reset(channel, packet);
+        this.cancelled = false;
+    }
+
     @Override
     public boolean isCancelled() {
+        checkNotReleased();
         return cancelled;
     }
 
     @Override
     public void setCancelled(boolean value) {
+        checkNotReleased();
+        checkWritable();
         cancelled = value;
     }
 }
@@ -18,13 +18,17 @@
 
 package io.github.retrooper.packetevents.event.eventtypes;
 
+import io.github.retrooper.packetevents.PacketEvents;
 import io.github.retrooper.packetevents.event.PacketEvent;
 import io.github.retrooper.packetevents.packettype.PacketType;
 import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.packetwrappers.WrappedPacket;
 import io.github.retrooper.packetevents.utils.netty.channel.ChannelUtils;
 import io.github.retrooper.packetevents.utils.reflection.ClassUtil;
 
 import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.function.Function;
 
 /**
  * The {@code NMSPacketEvent} abstract class represents an event that has to do with an actual packet.
@@ -35,24 +39,103 @@ import java.net.InetSocketAddress;
  * @since 1.8
  */
 public abstract class NMSPacketEvent extends PacketEvent implements CallableEvent {
-    private final Object channel;
-    private final InetSocketAddress socketAddress;
-    private final byte packetID;
+    private Object channel;
+    private InetSocketAddress socketAddress;
+    private byte packetID;
+    private boolean packetIDResolved;
     protected NMSPacket packet;
+    /**
+     * Wrappers shared by the typed packet subscriptions, at most one per wrapper class.
+     */
+    private WrappedPacket[] wrappers;
+    private int wrapperCount;
+    private boolean released;
+    private boolean readOnly;
 
     public NMSPacketEvent(Object channel, NMSPacket packet) {
+        reset(channel, packet);
+    }
+
+    /**
+     * Reinitialize this event for another packet.
+     * Only used by pooled events, which are reused for every packet of their event loop.
+     *
+     * @param channel Netty channel
+     * @param packet  NMS Packet
+     */
+    protected void reset(Object channel, NMSPacket packet) {
         this.channel = channel;
-        this.socketAddress = ChannelUtils.getSocketAddress(channel);
+        this.socketAddress = null;
         this.packet = packet;
-        packetID = PacketType.packetIDMap.getOrDefault(packet.getRawNMSPacket().getClass(), PacketType.INVALID);
+        this.packetIDResolved = false;
+        clearWrappers();
+        this.released = false;
+        resetTimestamps();
+    }
+
+    /**
+     * Mark a pooled event as processed and drop its references.
+     *
+     * @param detectEscape Should accessing the event from now on throw an {@link IllegalStateException}?
+     *                     This reveals listeners keeping a reference to the event.
+     */
+    protected void release(boolean detectEscape) {
+        this.channel = null;
+        this.socketAddress = null;
+        this.packet = null;
+        clearWrappers();
+        this.released = detectEscape;
+    }
+
+    /**
+     * Make this event read-only.
+     * Used internally for the event copies delivered to asynchronous listeners,
+     * which can neither cancel the packet nor modify it, because it has already been processed.
+     */
+    public final void markReadOnly() {
+        this.readOnly = true;
+    }
+
+    /**
+     * Is this a read-only event delivered to an asynchronous listener?
+     *
+     * @return Is the event read-only?
+     */
+    public final boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Make sure this event may be modified.
+     */
+    protected final void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Asynchronous listeners cannot modify or cancel a "
+                    + ClassUtil.getClassSimpleName(getClass()) + ".");
+        }
+    }
+
+    /**
+     * Make sure this event is not accessed after it has been released.
+     */
+    protected final void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("A pooled " + ClassUtil.getClassSimpleName(getClass())
+                    + " was accessed after it had been processed. Do not keep references to pooled events.");
+        }
     }
 
     /**
      * Get the associated player's socket address.
+     * It is resolved on the first call and cached afterwards.
      *
      * @return Socket address of the associated player.
      */
     public final InetSocketAddress getSocketAddress() {
+        checkNotReleased();
+        if (socketAddress == null) {
+            socketAddress = ChannelUtils.getSocketAddress(channel);
+        }
         return socketAddress;
     }
 
@@ -61,6 +144,7 @@ public abstract class NMSPacketEvent extends PacketEvent implements CallableEven
      * @return Netty channel
      */
     public Object getChannel() {
+        checkNotReleased();
         return channel;
     }
 
@@ -86,6 +170,7 @@ public abstract class NMSPacketEvent extends PacketEvent implements CallableEven
      * @return Get NMS packet.
      */
     public final NMSPacket getNMSPacket() {
+        checkNotReleased();
         return packet;
     }
 
@@ -95,15 +180,101 @@ public abstract class NMSPacketEvent extends PacketEvent implements CallableEven
      * @param packet NMS Object
      */
     public final void setNMSPacket(NMSPacket packet) {
+        checkNotReleased();
+        checkWritable();
+        //The packet ID stays the one of the original packet.
+        getPacketId();
+        //Buffered writes of memoizing wrappers belong to the replaced packet.
+        flushWrappers();
         this.packet = packet;
+        clearWrappers();
+    }
+
+    /**
+     * Get the wrapper of the packet shared by everyone processing this event.
+     * The wrapper is only created by the first caller asking for the wrapper class,
+     * later callers get the same instance, so modifications made through it are visible to them.
+     * The shared wrappers are flushed and dropped if the NMS packet is replaced.
+     *
+     * @param wrapperClass   Class of the wrapper, null if it is not known yet.
+     *                       In that case a new wrapper is created, it is only shared if no wrapper of its class is shared yet.
+     * @param wrapperFactory Creates the wrapper, for example {@code WrappedPacketInFlying::new}.
+     * @param <W>            Type of the wrapper.
+     * @return Shared wrapper of the packet.
+     */
+    public final <W extends WrappedPacket> W getWrapper(Class<W> wrapperClass, Function<NMSPacket, ? extends W> wrapperFactory) {
+        checkNotReleased();
+        if (wrapperClass != null) {
+            for (int i = 0; i < wrapperCount; i++) {
+                if (wrappers[i].getClass() == wrapperClass) {
+                    return wrapperClass.cast(wrappers[i]);
+                }
+            }
+        }
+        W wrapper = wrapperFactory.apply(packet);
+        if (wrappers == null) {
+            wrappers = new WrappedPacket[2];
+        }
+        for (int i = 0; i < wrapperCount; i++) {
+            if (wrappers[i].getClass() == wrapper.getClass()) {
+                //Someone else already shares a wrapper of this class, the new one is discarded
+                @SuppressWarnings("unchecked")
+                W shared = (W) wrappers[i];
+                return shared;
+            }
+        }
+        if (wrapperCount == wrappers.length) {
+            wrappers = Arrays.copyOf(wrappers, wrapperCount * 2);
+        }
+        if (PacketEvents.get().getSettings().shouldMemoizeWrappers()) {
+            wrapper.memoize();
+        }
+        wrappers[wrapperCount++] = wrapper;
+        return wrapper;
+    }
+
+    /**
+     * Write the buffered writes of every shared wrapper to the NMS packet.
+     * This is called once the event has been processed by every listener.
+     *
+     * @see WrappedPacket#memoize()
+     */
+    public final void flushWrappers() {
+        for (int i = 0; i < wrapperCount; i++) {
+            wrappers[i].flush();
+        }
+    }
+
+    private void clearWrappers() {
+        for (int i = 0; i < wrapperCount; i++) {
+            wrappers[i] = null;
+        }
+        wrapperCount = 0;
+    }
+
+    /**
+     * Assign the packet ID the packet has already been classified with, so that it is not looked up again.
+     * Only used internally by the packet processor, which resolves the ID before creating the event.
+     *
+     * @param packetID Packet ID of the NMS packet.
+     */
+    public final void assignPacketId(byte packetID) {
+        this.packetID = packetID;
+        this.packetIDResolved = true;
     }
 
     /**
      * Get the Packet ID.
+     * It is assigned by the packet processor, or looked up on the first call and cached afterwards.
      *
      * @return Packet ID.
      */
     public byte getPacketId() {
+        checkNotReleased();
+        if (!packetIDResolved) {
+            packetID = PacketType.packetIDMap.getOrDefault(packet.getRawNMSPacket().getClass(), PacketType.INVALID);
+            packetIDResolved = true;
+        }
         return packetID;
     }
 
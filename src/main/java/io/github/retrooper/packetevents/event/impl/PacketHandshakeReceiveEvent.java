@@ -40,7 +40,7 @@ public class PacketHandshakeReceiveEvent extends CancellableNMSPacketEvent {
 
     @Override
     public void call(PacketListenerAbstract listener) {
-        if (listener.clientSidedLoginAllowance == null || listener.clientSidedLoginAllowance.contains(getPacketId())) {
+        if (listener.getClientSidedHandshakeAllowance() == null || listener.getClientSidedHandshakeAllowance().contains(getPacketId())) {
             listener.onPacketHandshakeReceive(this);
         }
     }
@@ -40,7 +40,7 @@ public class PacketLoginReceiveEvent extends CancellableNMSPacketEvent {
 
     @Override
     public void call(PacketListenerAbstract listener) {
-        if (listener.clientSidedLoginAllowance == null || listener.clientSidedLoginAllowance.contains(getPacketId())) {
+        if (listener.getClientSidedLoginAllowance() == null || listener.getClientSidedLoginAllowance().contains(getPacketId())) {
             listener.onPacketLoginReceive(this);
         }
     }
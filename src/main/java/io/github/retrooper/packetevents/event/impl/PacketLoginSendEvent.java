@@ -53,12 +53,13 @@ public class PacketLoginSendEvent extends CancellableNMSPacketEvent implements P
 
     @Override
     public void setPostTask(@NotNull Runnable postTask) {
+        checkWritable();
         this.postTask = postTask;
     }
 
     @Override
     public void call(PacketListenerAbstract listener) {
-        if (listener.serverSidedLoginAllowance == null || listener.serverSidedLoginAllowance.contains(getPacketId())) {
+        if (listener.getServerSidedLoginAllowance() == null || listener.getServerSidedLoginAllowance().contains(getPacketId())) {
             listener.onPacketLoginSend(this);
         }
     }
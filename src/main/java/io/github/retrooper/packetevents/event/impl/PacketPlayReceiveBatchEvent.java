@@ -0,0 +1,172 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.impl;
+
+import io.github.retrooper.packetevents.event.PacketEvent;
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.eventtypes.PlayerEvent;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.utils.packetidset.PacketIdSet;
+import org.bukkit.entity.Player;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * The {@code PacketPlayReceiveBatchEvent} event is fired once per netty read cycle
+ * with every incoming PLAY packet of the cycle that has been passed on to minecraft.
+ * It is meant for throughput-oriented listeners, like analytics, that prefer processing a whole burst of packets
+ * (for example several FLYING, ARM_ANIMATION and USE_ENTITY packets) at once.
+ * Packets cancelled in the {@link PacketPlayReceiveEvent} are not part of the batch.
+ * The packets have already been processed, so they cannot be cancelled and are read-only, writing to a wrapper of them throws.
+ * Listeners only receive the packets their client-sided PLAY allowance filter accepts,
+ * in the order they were received.
+ *
+ * @author retrooper
+ * @see PacketListenerAbstract#onPacketPlayReceiveBatch(PacketPlayReceiveBatchEvent)
+ * @since 1.8
+ */
+public class PacketPlayReceiveBatchEvent extends PacketEvent implements PlayerEvent {
+    private final Player player;
+    private final Object channel;
+    private final NMSPacket[] packets;
+    private final byte[] packetIDs;
+    private final int size;
+
+    public PacketPlayReceiveBatchEvent(Player player, Object channel, NMSPacket[] packets, byte[] packetIDs, int size) {
+        this.player = player;
+        this.channel = channel;
+        this.packets = packets;
+        this.packetIDs = packetIDs;
+        this.size = size;
+    }
+
+    /**
+     * This method returns the bukkit player object of the packet sender.
+     *
+     * @return Packet sender.
+     */
+    @Override
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Get the associated player's netty channel.
+     *
+     * @return Netty channel
+     */
+    public Object getChannel() {
+        return channel;
+    }
+
+    /**
+     * Amount of packets in the batch.
+     *
+     * @return Batch size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a packet of the batch.
+     *
+     * @param index Index of the packet.
+     * @return NMS packet.
+     */
+    public NMSPacket getNMSPacket(int index) {
+        checkIndex(index);
+        return packets[index];
+    }
+
+    /**
+     * Get the packet ID of a packet of the batch.
+     *
+     * @param index Index of the packet.
+     * @return Packet ID.
+     */
+    public byte getPacketId(int index) {
+        checkIndex(index);
+        return packetIDs[index];
+    }
+
+    /**
+     * Unmodifiable list view of the packets of the batch.
+     *
+     * @return NMS packets.
+     */
+    public List<NMSPacket> getNMSPackets() {
+        return new AbstractList<NMSPacket>() {
+            @Override
+            public NMSPacket get(int index) {
+                return getNMSPacket(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public void call(PacketListenerAbstract listener) {
+        PacketIdSet allowance = listener.getClientSidedPlayAllowance();
+        if (allowance == null) {
+            listener.onPacketPlayReceiveBatch(this);
+            return;
+        }
+        int allowedCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (allowance.contains(packetIDs[i])) {
+                allowedCount++;
+            }
+        }
+        if (allowedCount == size) {
+            listener.onPacketPlayReceiveBatch(this);
+        } else if (allowedCount != 0) {
+            NMSPacket[] allowedPackets = new NMSPacket[allowedCount];
+            byte[] allowedPacketIDs = new byte[allowedCount];
+            int allowedIndex = 0;
+            for (int i = 0; i < size; i++) {
+                if (allowance.contains(packetIDs[i])) {
+                    allowedPackets[allowedIndex] = packets[i];
+                    allowedPacketIDs[allowedIndex++] = packetIDs[i];
+                }
+            }
+            PacketPlayReceiveBatchEvent filteredEvent = new PacketPlayReceiveBatchEvent(player, channel,
+                    allowedPackets, allowedPacketIDs, allowedCount);
+            filteredEvent.setNanoTimestamp(getNanoTimestamp());
+            listener.onPacketPlayReceiveBatch(filteredEvent);
+        }
+    }
+
+    @Override
+    public boolean isInbuilt() {
+        return true;
+    }
+}
@@ -36,13 +36,35 @@ import org.jetbrains.annotations.NotNull;
  * @since 1.2.6
  */
 public final class PacketPlayReceiveEvent extends CancellableNMSPacketEvent implements PlayerEvent {
-    private final Player player;
+    private Player player;
 
     public PacketPlayReceiveEvent(Player player, Object channel, NMSPacket packet) {
         super(channel, packet);
         this.player = player;
     }
 
+    /**
+     * Reinitialize this pooled event for the next packet of its event loop.
+     *
+     * @param player  Packet player.
+     * @param channel Netty channel of the player.
+     * @param packet  Pooled NMS packet holder, already bound to the next NMS packet.
+     */
+    void reuse(Player player, Object channel, NMSPacket packet) {
+        reset(channel, packet);
+        this.player = player;
+    }
+
+    /**
+     * Release this pooled event after it has been processed.
+     *
+     * @param detectEscape Should accessing the event from now on throw an exception?
+     */
+    void recycle(boolean detectEscape) {
+        release(detectEscape);
+        this.player = null;
+    }
+
     /**
      * This method returns the bukkit player object of the packet sender.
      * The player object might be null during early packets.
@@ -52,12 +74,13 @@ public final class PacketPlayReceiveEvent extends CancellableNMSPacketEvent impl
     @NotNull
     @Override
     public Player getPlayer() {
+        checkNotReleased();
         return player;
     }
 
     @Override
     public void call(PacketListenerAbstract listener) {
-        if (listener.clientSidedPlayAllowance == null || listener.clientSidedPlayAllowance.contains(getPacketId())) {
+        if (listener.getClientSidedPlayAllowance() == null || listener.getClientSidedPlayAllowance().contains(getPacketId())) {
             listener.onPacketPlayReceive(this);
         }
     }
@@ -37,7 +37,7 @@ import org.jetbrains.annotations.Nullable;
  * @since 1.2.6
  */
 public final class PacketPlaySendEvent extends CancellableNMSPacketEvent implements PlayerEvent, PostTaskEvent {
-    private final Player player;
+    private Player player;
     private Runnable postTask;
 
     public PacketPlaySendEvent(final Player player, final Object channel, final NMSPacket packet) {
@@ -45,6 +45,30 @@ public final class PacketPlaySendEvent extends CancellableNMSPacketEvent impleme
         this.player = player;
     }
 
+    /**
+     * Reinitialize this pooled event for the next packet of its event loop.
+     *
+     * @param player  Packet player.
+     * @param channel Netty channel of the player.
+     * @param packet  Pooled NMS packet holder, already bound to the next NMS packet.
+     */
+    void reuse(Player player, Object channel, NMSPacket packet) {
+        reset(channel, packet);
+        this.player = player;
+        this.postTask = null;
+    }
+
+    /**
+     * Release this pooled event after it has been processed.
+     *
+     * @param detectEscape Should accessing the event from now on throw an exception?
+     */
+    void recycle(boolean detectEscape) {
+        release(detectEscape);
+        this.player = null;
+        this.postTask = null;
+    }
+
     /**
      * This method returns the bukkit player object of the packet receiver.
      * The player object might be null during early packets.
@@ -54,27 +78,32 @@ public final class PacketPlaySendEvent extends CancellableNMSPacketEvent impleme
     @NotNull
     @Override
     public Player getPlayer() {
+        checkNotReleased();
         return player;
     }
 
     @Override
     public boolean isPostTaskAvailable() {
+        checkNotReleased();
         return postTask != null;
     }
 
     @Override
     public Runnable getPostTask() {
+        checkNotReleased();
         return postTask;
     }
 
     @Override
     public void setPostTask(@NotNull Runnable postTask) {
+        checkNotReleased();
+        checkWritable();
         this.postTask = postTask;
     }
 
     @Override
     public void call(PacketListenerAbstract listener) {
-        if (listener.serverSidedPlayAllowance == null || listener.serverSidedPlayAllowance.contains(getPacketId())) {
+        if (listener.getServerSidedPlayAllowance() == null || listener.getServerSidedPlayAllowance().contains(getPacketId())) {
             listener.onPacketPlaySend(this);
         }
     }
@@ -40,7 +40,7 @@ public class PacketStatusReceiveEvent extends CancellableNMSPacketEvent {
 
     @Override
     public void call(PacketListenerAbstract listener) {
-        if (listener.clientSidedStatusAllowance == null || listener.clientSidedStatusAllowance.contains(getPacketId())) {
+        if (listener.getClientSidedStatusAllowance() == null || listener.getClientSidedStatusAllowance().contains(getPacketId())) {
             listener.onPacketStatusReceive(this);
         }
     }
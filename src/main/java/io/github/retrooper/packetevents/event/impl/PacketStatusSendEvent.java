@@ -56,12 +56,13 @@ public class PacketStatusSendEvent extends CancellableNMSPacketEvent implements
 
     @Override
     public void setPostTask(@NotNull Runnable postTask) {
+        checkWritable();
         this.postTask = postTask;
     }
 
     @Override
     public void call(PacketListenerAbstract listener) {
-        if (listener.serverSidedStatusAllowance == null || listener.serverSidedStatusAllowance.contains(getPacketId())) {
+        if (listener.getServerSidedStatusAllowance() == null || listener.getServerSidedStatusAllowance().contains(getPacketId())) {
             listener.onPacketStatusSend(this);
         }
     }
@@ -0,0 +1,238 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.impl;
+
+import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.packetwrappers.PooledNMSPacket;
+import io.github.retrooper.packetevents.settings.PacketEventsSettings;
+import org.bukkit.entity.Player;
+
+/**
+ * Per event loop pool of the PLAY packet events.
+ * If event pooling is enabled, every netty thread reuses one {@link PacketPlayReceiveEvent}, {@link PacketPlaySendEvent},
+ * {@link PostPacketPlayReceiveEvent} and {@link PostPacketPlaySendEvent} (including their NMS packet holders)
+ * for all packets it processes.
+ * A pooled event that is still being processed, for example because a listener sent a packet while handling it,
+ * is never handed out twice, a new event is created instead.
+ * This class is only meant to be used internally by the packet processor.
+ *
+ * @author retrooper
+ * @see PacketEventsSettings#eventPooling(boolean)
+ * @since 1.8
+ */
+public final class PlayEventPool {
+    private static final ThreadLocal<PlayEventPool> POOLS = ThreadLocal.withInitial(PlayEventPool::new);
+    private final PooledNMSPacket receivePacket = new PooledNMSPacket();
+    private final PooledNMSPacket sendPacket = new PooledNMSPacket();
+    private final PooledNMSPacket postReceivePacket = new PooledNMSPacket();
+    private final PooledNMSPacket postSendPacket = new PooledNMSPacket();
+    private PacketPlayReceiveEvent receiveEvent;
+    private PacketPlaySendEvent sendEvent;
+    private PostPacketPlayReceiveEvent postReceiveEvent;
+    private PostPacketPlaySendEvent postSendEvent;
+    private boolean receiveEventInUse;
+    private boolean sendEventInUse;
+    private boolean postReceiveEventInUse;
+    private boolean postSendEventInUse;
+
+    private PlayEventPool() {
+    }
+
+    /**
+     * Get an event for an incoming PLAY packet.
+     * The event has to be passed to {@link #release(PacketPlayReceiveEvent)} once it has been processed.
+     *
+     * @param player   Packet sender.
+     * @param channel  Netty channel of the packet sender.
+     * @param packet   NMS Packet.
+     * @param packetID Packet ID the packet has been classified with.
+     * @return Pooled event if pooling is enabled and the pooled event is available, otherwise a new event.
+     */
+    public static PacketPlayReceiveEvent acquireReceiveEvent(Player player, Object channel, Object packet, byte packetID) {
+        PlayEventPool pool = PacketEvents.get().getSettings().shouldPoolEvents() ? POOLS.get() : null;
+        if (pool == null || pool.receiveEventInUse) {
+            PacketPlayReceiveEvent event = new PacketPlayReceiveEvent(player, channel, new NMSPacket(packet));
+            event.assignPacketId(packetID);
+            return event;
+        }
+        pool.receiveEventInUse = true;
+        pool.receivePacket.bind(packet);
+        if (pool.receiveEvent == null) {
+            pool.receiveEvent = new PacketPlayReceiveEvent(player, channel, pool.receivePacket);
+        } else {
+            pool.receiveEvent.reuse(player, channel, pool.receivePacket);
+        }
+        pool.receiveEvent.assignPacketId(packetID);
+        return pool.receiveEvent;
+    }
+
+    /**
+     * Get an event for an outgoing PLAY packet.
+     * The event has to be passed to {@link #release(PacketPlaySendEvent)} once it has been processed.
+     *
+     * @param player   Packet receiver.
+     * @param channel  Netty channel of the packet receiver.
+     * @param packet   NMS Packet.
+     * @param packetID Packet ID the packet has been classified with.
+     * @return Pooled event if pooling is enabled and the pooled event is available, otherwise a new event.
+     */
+    public static PacketPlaySendEvent acquireSendEvent(Player player, Object channel, Object packet, byte packetID) {
+        PlayEventPool pool = PacketEvents.get().getSettings().shouldPoolEvents() ? POOLS.get() : null;
+        if (pool == null || pool.sendEventInUse) {
+            PacketPlaySendEvent event = new PacketPlaySendEvent(player, channel, new NMSPacket(packet));
+            event.assignPacketId(packetID);
+            return event;
+        }
+        pool.sendEventInUse = true;
+        pool.sendPacket.bind(packet);
+        if (pool.sendEvent == null) {
+            pool.sendEvent = new PacketPlaySendEvent(player, channel, pool.sendPacket);
+        } else {
+            pool.sendEvent.reuse(player, channel, pool.sendPacket);
+        }
+        pool.sendEvent.assignPacketId(packetID);
+        return pool.sendEvent;
+    }
+
+    /**
+     * Get an event for an incoming PLAY packet that minecraft has processed.
+     * The event has to be passed to {@link #release(PostPacketPlayReceiveEvent)} once it has been processed.
+     *
+     * @param player   Packet sender.
+     * @param channel  Netty channel of the packet sender.
+     * @param packet   NMS Packet.
+     * @param packetID Packet ID the packet has been classified with.
+     * @return Pooled event if pooling is enabled and the pooled event is available, otherwise a new event.
+     */
+    public static PostPacketPlayReceiveEvent acquirePostReceiveEvent(Player player, Object channel, Object packet, byte packetID) {
+        PlayEventPool pool = PacketEvents.get().getSettings().shouldPoolEvents() ? POOLS.get() : null;
+        if (pool == null || pool.postReceiveEventInUse) {
+            PostPacketPlayReceiveEvent event = new PostPacketPlayReceiveEvent(player, channel, new NMSPacket(packet));
+            event.assignPacketId(packetID);
+            return event;
+        }
+        pool.postReceiveEventInUse = true;
+        pool.postReceivePacket.bind(packet);
+        if (pool.postReceiveEvent == null) {
+            pool.postReceiveEvent = new PostPacketPlayReceiveEvent(player, channel, pool.postReceivePacket);
+        } else {
+            pool.postReceiveEvent.reuse(player, channel, pool.postReceivePacket);
+        }
+        pool.postReceiveEvent.assignPacketId(packetID);
+        return pool.postReceiveEvent;
+    }
+
+    /**
+     * Get an event for an outgoing PLAY packet that minecraft has sent.
+     * The event has to be passed to {@link #release(PostPacketPlaySendEvent)} once it has been processed.
+     *
+     * @param player   Packet receiver.
+     * @param channel  Netty channel of the packet receiver.
+     * @param packet   NMS Packet.
+     * @param packetID Packet ID the packet has been classified with.
+     * @return Pooled event if pooling is enabled and the pooled event is available, otherwise a new event.
+     */
+    public static PostPacketPlaySendEvent acquirePostSendEvent(Player player, Object channel, Object packet, byte packetID) {
+        PlayEventPool pool = PacketEvents.get().getSettings().shouldPoolEvents() ? POOLS.get() : null;
+        if (pool == null || pool.postSendEventInUse) {
+            PostPacketPlaySendEvent event = new PostPacketPlaySendEvent(player, channel, new NMSPacket(packet));
+            event.assignPacketId(packetID);
+            return event;
+        }
+        pool.postSendEventInUse = true;
+        pool.postSendPacket.bind(packet);
+        if (pool.postSendEvent == null) {
+            pool.postSendEvent = new PostPacketPlaySendEvent(player, channel, pool.postSendPacket);
+        } else {
+            pool.postSendEvent.reuse(player, channel, pool.postSendPacket);
+        }
+        pool.postSendEvent.assignPacketId(packetID);
+        return pool.postSendEvent;
+    }
+
+    /**
+     * Return an event to the pool once it has been processed.
+     * Events that are not pooled are ignored.
+     * Pooled events are recognized by identity, so they are released even if pooling was disabled in the meantime.
+     *
+     * @param event Event returned by {@link #acquireReceiveEvent(Player, Object, Object, byte)}.
+     */
+    public static void release(PacketPlayReceiveEvent event) {
+        PlayEventPool pool = POOLS.get();
+        if (pool.receiveEvent == event) {
+            boolean debug = PacketEvents.get().getSettings().isEventPoolDebugEnabled();
+            event.recycle(debug);
+            pool.receivePacket.release(debug);
+            pool.receiveEventInUse = false;
+        }
+    }
+
+    /**
+     * Return an event to the pool once it has been processed.
+     * Events that are not pooled are ignored.
+     * Pooled events are recognized by identity, so they are released even if pooling was disabled in the meantime.
+     *
+     * @param event Event returned by {@link #acquireSendEvent(Player, Object, Object, byte)}.
+     */
+    public static void release(PacketPlaySendEvent event) {
+        PlayEventPool pool = POOLS.get();
+        if (pool.sendEvent == event) {
+            boolean debug = PacketEvents.get().getSettings().isEventPoolDebugEnabled();
+            event.recycle(debug);
+            pool.sendPacket.release(debug);
+            pool.sendEventInUse = false;
+        }
+    }
+
+    /**
+     * Return an event to the pool once it has been processed.
+     * Events that are not pooled are ignored.
+     * Pooled events are recognized by identity, so they are released even if pooling was disabled in the meantime.
+     *
+     * @param event Event returned by {@link #acquirePostReceiveEvent(Player, Object, Object, byte)}.
+     */
+    public static void release(PostPacketPlayReceiveEvent event) {
+        PlayEventPool pool = POOLS.get();
+        if (pool.postReceiveEvent == event) {
+            boolean debug = PacketEvents.get().getSettings().isEventPoolDebugEnabled();
+            event.recycle(debug);
+            pool.postReceivePacket.release(debug);
+            pool.postReceiveEventInUse = false;
+        }
+    }
+
+    /**
+     * Return an event to the pool once it has been processed.
+     * Events that are not pooled are ignored.
+     * Pooled events are recognized by identity, so they are released even if pooling was disabled in the meantime.
+     *
+     * @param event Event returned by {@link #acquirePostSendEvent(Player, Object, Object, byte)}.
+     */
+    public static void release(PostPacketPlaySendEvent event) {
+        PlayEventPool pool = POOLS.get();
+        if (pool.postSendEvent == event) {
+            boolean debug = PacketEvents.get().getSettings().isEventPoolDebugEnabled();
+            event.recycle(debug);
+            pool.postSendPacket.release(debug);
+            pool.postSendEventInUse = false;
+        }
+    }
+}
@@ -34,13 +34,35 @@ import org.bukkit.entity.Player;
  * @since 1.7
  */
 public class PostPacketPlayReceiveEvent extends NMSPacketEvent implements PlayerEvent {
-    private final Player player;
+    private Player player;
 
     public PostPacketPlayReceiveEvent(final Player player, final Object channel, final NMSPacket packet) {
         super(channel, packet);
         this.player = player;
     }
 
+    /**
+     * Reinitialize this pooled event for the next packet of its event loop.
+     *
+     * @param player  Packet sender.
+     * @param channel Netty channel of the player.
+     * @param packet  Pooled NMS packet holder, already bound to the next NMS packet.
+     */
+    void reuse(Player player, Object channel, NMSPacket packet) {
+        reset(channel, packet);
+        this.player = player;
+    }
+
+    /**
+     * Release this pooled event after it has been processed.
+     *
+     * @param detectEscape Should accessing the event from now on throw an exception?
+     */
+    void recycle(boolean detectEscape) {
+        release(detectEscape);
+        this.player = null;
+    }
+
     /**
      * This method returns the bukkit player object of the packet sender.
      *
@@ -48,12 +70,13 @@ public class PostPacketPlayReceiveEvent extends NMSPacketEvent implements Player
      */
     @Override
     public Player getPlayer() {
+        checkNotReleased();
         return player;
     }
 
     @Override
     public void call(PacketListenerAbstract listener) {
-        if (listener.clientSidedPlayAllowance == null || listener.clientSidedPlayAllowance.contains(getPacketId())) {
+        if (listener.getClientSidedPlayAllowance() == null || listener.getClientSidedPlayAllowance().contains(getPacketId())) {
             listener.onPostPacketPlayReceive(this);
         }
     }
@@ -0,0 +1,79 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue metrics of an asynchronous packet listener.
+ *
+ * @author retrooper
+ * @see EventManager#getAsyncListenerMetrics(PacketListenerAbstract)
+ * @since 1.8
+ */
+public final class AsyncListenerMetrics {
+    private final BlockingQueue<?> queue;
+    final LongAdder delivered = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+    final LongAdder batches = new LongAdder();
+
+    AsyncListenerMetrics(BlockingQueue<?> queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * Amount of events currently waiting to be processed by the listener.
+     *
+     * @return Queue depth.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Amount of events the listener has processed.
+     *
+     * @return Delivered events.
+     */
+    public long getDeliveredEvents() {
+        return delivered.sum();
+    }
+
+    /**
+     * Amount of events that were discarded, because the queue was full.
+     *
+     * @return Dropped events.
+     */
+    public long getDroppedEvents() {
+        return dropped.sum();
+    }
+
+    /**
+     * Amount of batches the listener has processed.
+     *
+     * @return Processed batches.
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Settings of an asynchronous packet listener.
+ * Asynchronous listeners receive read-only copies of the packet events on their own executor,
+ * through a bounded queue that is drained in batches.
+ *
+ * @author retrooper
+ * @see EventManager#registerAsyncListener(PacketListenerAbstract, AsyncListenerSettings)
+ * @since 1.8
+ */
+public class AsyncListenerSettings {
+    /**
+     * Maximum amount of events waiting to be processed by the listener.
+     */
+    private int queueCapacity = 8192;
+
+    /**
+     * Maximum amount of events the listener processes in one executor task.
+     */
+    private int batchSize = 256;
+
+    /**
+     * What should happen to new events if the queue is full?
+     */
+    private OverflowStrategy overflowStrategy = OverflowStrategy.DROP_OLDEST;
+
+    /**
+     * Executor processing the events, null to use a dedicated thread for the listener.
+     */
+    private Executor executor;
+
+    /**
+     * This decides how many events may be waiting to be processed by the listener.
+     *
+     * @param queueCapacity Value
+     * @return Settings instance.
+     */
+    public AsyncListenerSettings queueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The queue capacity must be positive.");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * This decides how many events the listener processes in one executor task.
+     *
+     * @param batchSize Value
+     * @return Settings instance.
+     */
+    public AsyncListenerSettings batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * This decides what happens to new events if the queue is full.
+     *
+     * @param overflowStrategy Value
+     * @return Settings instance.
+     */
+    public AsyncListenerSettings overflowStrategy(OverflowStrategy overflowStrategy) {
+        this.overflowStrategy = overflowStrategy;
+        return this;
+    }
+
+    /**
+     * This decides which executor processes the events.
+     * By default every asynchronous listener gets its own thread.
+     *
+     * @param executor Value
+     * @return Settings instance.
+     */
+    public AsyncListenerSettings executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public OverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * What happens to a new event if the queue of an asynchronous listener is full.
+     */
+    public enum OverflowStrategy {
+        /**
+         * Discard the oldest queued event to make room for the new one.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Discard the new event.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Block the netty thread until the listener made room for the new event.
+         * Only use this if losing events is worse than delaying packets.
+         */
+        BLOCK
+    }
+}
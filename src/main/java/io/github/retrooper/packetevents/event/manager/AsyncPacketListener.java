@@ -0,0 +1,313 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.event.PacketEvent;
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.eventtypes.CancellableEvent;
+import io.github.retrooper.packetevents.event.eventtypes.NMSPacketEvent;
+import io.github.retrooper.packetevents.event.impl.*;
+import io.github.retrooper.packetevents.utils.packetidset.PacketIdSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stand-in registered in place of an asynchronous listener.
+ * It has the priority of the asynchronous listener and reports its allowance filters,
+ * so the dispatch tables decide which events it receives.
+ * Once every synchronous listener has processed a packet event, the event is copied into a read-only event and queued,
+ * so the copy carries the final cancellation state. The queue is drained in batches on the executor of the listener.
+ * Subclasses of the inbuilt packet events cannot be copied, they are dropped and counted as dropped events.
+ * {@link PacketPlayReceiveBatchEvent}s own their read-only packets and are queued as they are.
+ * Player inject, eject and custom events are rare and partly cancellable, they are passed on synchronously.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+class AsyncPacketListener extends PacketListenerAbstract {
+    private final PacketListenerAbstract listener;
+    private final AsyncListenerSettings settings;
+    private final BlockingQueue<PacketEvent> queue;
+    private final AsyncListenerMetrics metrics;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+    private volatile boolean shutdown;
+
+    AsyncPacketListener(PacketListenerAbstract listener, AsyncListenerSettings settings) {
+        super(listener.getPriority(), listener.isIgnoringCancelled());
+        this.listener = listener;
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.metrics = new AsyncListenerMetrics(queue);
+        if (settings.getExecutor() != null) {
+            this.executor = settings.getExecutor();
+            this.ownedExecutor = null;
+        } else {
+            //Anonymous classes and lambdas have no simple name.
+            String threadName = "packetevents-async-" + listener.getClass().getName();
+            this.ownedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = ownedExecutor;
+        }
+    }
+
+    PacketListenerAbstract getListener() {
+        return listener;
+    }
+
+    AsyncListenerSettings getSettings() {
+        return settings;
+    }
+
+    AsyncListenerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stop delivering events to the listener.
+     * Queued events are discarded.
+     */
+    void shutdown() {
+        shutdown = true;
+        queue.clear();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Queue a read-only copy of the event for the listener.
+     * The event manager calls this after the event has been dispatched to every synchronous listener.
+     *
+     * @param event Processed event.
+     */
+    void enqueue(NMSPacketEvent event) {
+        if (shutdown || (isIgnoringCancelled() && event instanceof CancellableEvent
+                && ((CancellableEvent) event).isCancelled())) {
+            return;
+        }
+        PacketEventType type = PacketEventType.getType(event);
+        if (type == null) {
+            //Subclasses of the inbuilt events cannot be copied, and the original must not leave this thread.
+            metrics.dropped.increment();
+            return;
+        }
+        offer(type.copyReadOnly(event));
+    }
+
+    private void offer(PacketEvent copy) {
+        switch (settings.getOverflowStrategy()) {
+            case DROP_OLDEST:
+                while (!queue.offer(copy)) {
+                    if (queue.poll() != null) {
+                        metrics.dropped.increment();
+                    }
+                }
+                break;
+            case DROP_NEWEST:
+                if (!queue.offer(copy)) {
+                    metrics.dropped.increment();
+                    return;
+                }
+                break;
+            case BLOCK:
+                try {
+                    queue.put(copy);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    metrics.dropped.increment();
+                    return;
+                }
+                break;
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    private void drain() {
+        List<PacketEvent> batch = new ArrayList<>(Math.min(settings.getBatchSize(), settings.getQueueCapacity()));
+        try {
+            while (!shutdown && queue.drainTo(batch, settings.getBatchSize()) != 0) {
+                for (PacketEvent event : batch) {
+                    if (PEEventManager.LISTENER_FAULTS.isSuspended(listener)) {
+                        continue;
+                    }
+                    try {
+                        if (event instanceof PacketPlayReceiveBatchEvent) {
+                            listener.onPacketPlayReceiveBatch((PacketPlayReceiveBatchEvent) event);
+                        } else {
+                            invoke((NMSPacketEvent) event);
+                        }
+                    } catch (Exception ex) {
+                        PEEventManager.LISTENER_FAULTS.handle(listener, ex);
+                    }
+                }
+                metrics.delivered.add(batch.size());
+                metrics.batches.increment();
+                batch.clear();
+            }
+        } finally {
+            drainScheduled.set(false);
+        }
+        //Events might have been queued after we drained the queue, but before we cleared the flag.
+        if (!shutdown && !queue.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    private void invoke(NMSPacketEvent event) {
+        PacketEventType type = PacketEventType.getType(event);
+        if (!PEEventManager.DISPATCH_TIMINGS.isEnabled()) {
+            type.invoke(listener, event);
+            return;
+        }
+        //Recorded for the listener itself, the dispatching threads only queue the event.
+        long start = System.nanoTime();
+        try {
+            type.invoke(listener, event);
+        } finally {
+            //Once unregistered, the histograms of the listener have been discarded and must not come back.
+            if (!shutdown) {
+                PEEventManager.DISPATCH_TIMINGS.record(listener, type, event.getPacketId(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Override
+    public PacketIdSet getServerSidedStatusAllowance() {
+        return listener.getServerSidedStatusAllowance();
+    }
+
+    @Override
+    public PacketIdSet getServerSidedLoginAllowance() {
+        return listener.getServerSidedLoginAllowance();
+    }
+
+    @Override
+    public PacketIdSet getServerSidedPlayAllowance() {
+        return listener.getServerSidedPlayAllowance();
+    }
+
+    @Override
+    public PacketIdSet getClientSidedStatusAllowance() {
+        return listener.getClientSidedStatusAllowance();
+    }
+
+    @Override
+    public PacketIdSet getClientSidedHandshakeAllowance() {
+        return listener.getClientSidedHandshakeAllowance();
+    }
+
+    @Override
+    public PacketIdSet getClientSidedLoginAllowance() {
+        return listener.getClientSidedLoginAllowance();
+    }
+
+    @Override
+    public PacketIdSet getClientSidedPlayAllowance() {
+        return listener.getClientSidedPlayAllowance();
+    }
+
+    @Override
+    public void onPacketStatusReceive(PacketStatusReceiveEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void onPacketStatusSend(PacketStatusSendEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void onPacketHandshakeReceive(PacketHandshakeReceiveEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void onPacketLoginReceive(PacketLoginReceiveEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void onPacketLoginSend(PacketLoginSendEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void onPacketPlayReceive(PacketPlayReceiveEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void onPacketPlaySend(PacketPlaySendEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void onPostPacketPlayReceive(PostPacketPlayReceiveEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void onPostPacketPlaySend(PostPacketPlaySendEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void onPacketPlayReceiveBatch(PacketPlayReceiveBatchEvent event) {
+        //The batch has already been filtered by our allowance filter, which is the one of the listener.
+        if (!shutdown) {
+            offer(event);
+        }
+    }
+
+    @Override
+    public void onPostPlayerInject(PostPlayerInjectEvent event) {
+        listener.onPostPlayerInject(event);
+    }
+
+    @Override
+    public void onPlayerInject(PlayerInjectEvent event) {
+        listener.onPlayerInject(event);
+    }
+
+    @Override
+    public void onPlayerEject(PlayerEjectEvent event) {
+        listener.onPlayerEject(event);
+    }
+
+    @Override
+    public void onPacketEventExternal(PacketEvent event) {
+        listener.onPacketEventExternal(event);
+    }
+}
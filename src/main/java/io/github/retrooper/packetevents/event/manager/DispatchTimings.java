@@ -0,0 +1,155 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Optional instrumentation of the dynamic event manager.
+ * If enabled, the duration of every call of a {@link PacketListenerAbstract} is recorded
+ * into a {@link TimingHistogram} per listener, {@link PacketEventType} and packet ID.
+ * This helps finding out which listener is responsible for lag spikes.
+ * While disabled, dispatching only pays for reading the enabled flag once per event.
+ *
+ * @author retrooper
+ * @see PacketEvents#getDispatchTimings()
+ * @since 1.8
+ */
+public final class DispatchTimings {
+    private static final int PACKET_ID_COUNT = 256;
+    private static final int PACKET_ID_OFFSET = 128;
+    private final Map<PacketListenerAbstract, AtomicReferenceArray<TimingHistogram>> histograms = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    DispatchTimings() {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable recording listener call durations.
+     * Disabling keeps the histograms recorded so far.
+     *
+     * @param enabled Value
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Discard every recorded histogram.
+     */
+    public void reset() {
+        histograms.clear();
+    }
+
+    /**
+     * Discard the histograms of a listener, called when the listener is unregistered.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     */
+    void forget(PacketListenerAbstract listener) {
+        histograms.remove(listener);
+    }
+
+    /**
+     * Listeners with recorded histograms.
+     * Asynchronous listeners are listed themselves, their calls are recorded on their executor.
+     *
+     * @return Unmodifiable view of the listeners.
+     */
+    public Set<PacketListenerAbstract> getListeners() {
+        return Collections.unmodifiableSet(histograms.keySet());
+    }
+
+    /**
+     * Get the histogram of a listener for one event type and packet ID.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @param type     Type of the event.
+     * @param packetID Packet ID
+     * @return Histogram, null if no call has been recorded.
+     */
+    public TimingHistogram getHistogram(PacketListenerAbstract listener, PacketEventType type, byte packetID) {
+        AtomicReferenceArray<TimingHistogram> listenerHistograms = histograms.get(listener);
+        if (listenerHistograms == null) {
+            return null;
+        }
+        return listenerHistograms.get(getIndex(type, packetID));
+    }
+
+    /**
+     * Get every histogram of a listener for one event type.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @param type     Type of the event.
+     * @return Histograms by packet ID, empty if no call has been recorded.
+     */
+    public Map<Byte, TimingHistogram> getHistograms(PacketListenerAbstract listener, PacketEventType type) {
+        Map<Byte, TimingHistogram> result = new HashMap<>();
+        AtomicReferenceArray<TimingHistogram> listenerHistograms = histograms.get(listener);
+        if (listenerHistograms != null) {
+            for (int index = 0; index < PACKET_ID_COUNT; index++) {
+                TimingHistogram histogram = listenerHistograms.get(type.ordinal() * PACKET_ID_COUNT + index);
+                if (histogram != null) {
+                    result.put((byte) (index - PACKET_ID_OFFSET), histogram);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Record the duration of a listener call.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @param type     Type of the event.
+     * @param packetID Packet ID
+     * @param nanos    Duration in nanoseconds.
+     */
+    void record(PacketListenerAbstract listener, PacketEventType type, byte packetID, long nanos) {
+        AtomicReferenceArray<TimingHistogram> listenerHistograms = histograms.get(listener);
+        if (listenerHistograms == null) {
+            listenerHistograms = histograms.computeIfAbsent(listener,
+                    key -> new AtomicReferenceArray<>(PacketEventType.values().length * PACKET_ID_COUNT));
+        }
+        int index = getIndex(type, packetID);
+        TimingHistogram histogram = listenerHistograms.get(index);
+        if (histogram == null) {
+            listenerHistograms.compareAndSet(index, null, new TimingHistogram());
+            histogram = listenerHistograms.get(index);
+        }
+        histogram.record(nanos);
+    }
+
+    private static int getIndex(PacketEventType type, byte packetID) {
+        return type.ordinal() * PACKET_ID_COUNT + packetID + PACKET_ID_OFFSET;
+    }
+}
@@ -23,6 +23,15 @@ import io.github.retrooper.packetevents.event.PacketEvent;
 import io.github.retrooper.packetevents.event.PacketListener;
 import io.github.retrooper.packetevents.event.PacketListenerAbstract;
 import io.github.retrooper.packetevents.event.PacketListenerDynamic;
+import io.github.retrooper.packetevents.event.PacketListenerPriority;
+import io.github.retrooper.packetevents.event.PacketSubscriber;
+import io.github.retrooper.packetevents.event.impl.PacketPlayReceiveEvent;
+import io.github.retrooper.packetevents.event.impl.PacketPlaySendEvent;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.packetwrappers.WrappedPacket;
+import org.bukkit.entity.Player;
+
+import java.util.function.Function;
 
 /**
  * This is the event manager interface.
@@ -156,6 +165,161 @@ public interface EventManager {
         return this;
     }
 
+    /**
+     * Register a PacketListenerAbstract listener that processes packet events asynchronously.
+     * The listener receives read-only copies of the packet events on its own executor,
+     * so it can neither cancel nor modify packets.
+     * Use this for listeners that only observe packets, like analytics or logging.
+     * Configure the allowance filters of the listener before registering it.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @param settings {@link AsyncListenerSettings}
+     * @return Same event manager instance.
+     */
+    default EventManager registerAsyncListener(PacketListenerAbstract listener, AsyncListenerSettings settings) {
+        if (listener != null) {
+            PEEventManager.EVENT_MANAGER_MODERN.registerAsyncListener(listener, settings);
+        }
+        return this;
+    }
+
+    /**
+     * Register a PacketListenerAbstract listener that processes packet events asynchronously
+     * with the default {@link AsyncListenerSettings}.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @return Same event manager instance.
+     * @see #registerAsyncListener(PacketListenerAbstract, AsyncListenerSettings)
+     */
+    default EventManager registerAsyncListener(PacketListenerAbstract listener) {
+        return registerAsyncListener(listener, new AsyncListenerSettings());
+    }
+
+    /**
+     * Get the queue metrics of an asynchronous PacketListenerAbstract listener.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @return Metrics, null if the listener is not registered asynchronously.
+     */
+    default AsyncListenerMetrics getAsyncListenerMetrics(PacketListenerAbstract listener) {
+        return PEEventManager.EVENT_MANAGER_MODERN.getAsyncListenerMetrics(listener);
+    }
+
+    /**
+     * Subscribe to an incoming PLAY packet.
+     * The subscriber is only called for the given packet ID, it receives the event and a wrapper of the packet.
+     * All subscribers of the same packet share one wrapper per event instead of wrapping the packet themselves,
+     * modifications made through the wrapper are visible to the subscribers called afterwards.
+     * Example: {@code onPlayReceive(PacketType.Play.Client.FLYING, WrappedPacketInFlying::new, (event, flying) -> ...)}
+     *
+     * @param packetID       Packet ID of an incoming PLAY packet.
+     * @param priority       Priority of the subscription.
+     * @param wrapperFactory Creates the wrapper of the packet.
+     * @param subscriber     {@link PacketSubscriber}
+     * @param <W>            Type of the wrapper.
+     * @return Listener representing the subscription, pass it to {@link #unregisterListener(PacketListenerAbstract)} to unsubscribe.
+     */
+    default <W extends WrappedPacket> PacketListenerAbstract onPlayReceive(byte packetID, PacketListenerPriority priority,
+                                                                          Function<NMSPacket, W> wrapperFactory,
+                                                                          PacketSubscriber<PacketPlayReceiveEvent, W> subscriber) {
+        PacketListenerAbstract subscription = PacketSubscription.receive(packetID, priority, wrapperFactory, subscriber);
+        PEEventManager.EVENT_MANAGER_MODERN.registerListener(subscription);
+        return subscription;
+    }
+
+    /**
+     * Subscribe to an incoming PLAY packet with the {@link PacketListenerPriority#NORMAL} priority.
+     *
+     * @param packetID       Packet ID of an incoming PLAY packet.
+     * @param wrapperFactory Creates the wrapper of the packet.
+     * @param subscriber     {@link PacketSubscriber}
+     * @param <W>            Type of the wrapper.
+     * @return Listener representing the subscription.
+     * @see #onPlayReceive(byte, PacketListenerPriority, Function, PacketSubscriber)
+     */
+    default <W extends WrappedPacket> PacketListenerAbstract onPlayReceive(byte packetID, Function<NMSPacket, W> wrapperFactory,
+                                                                          PacketSubscriber<PacketPlayReceiveEvent, W> subscriber) {
+        return onPlayReceive(packetID, PacketListenerPriority.NORMAL, wrapperFactory, subscriber);
+    }
+
+    /**
+     * Subscribe to an outgoing PLAY packet.
+     * All subscribers of the same packet share one wrapper per event.
+     *
+     * @param packetID       Packet ID of an outgoing PLAY packet.
+     * @param priority       Priority of the subscription.
+     * @param wrapperFactory Creates the wrapper of the packet.
+     * @param subscriber     {@link PacketSubscriber}
+     * @param <W>            Type of the wrapper.
+     * @return Listener representing the subscription, pass it to {@link #unregisterListener(PacketListenerAbstract)} to unsubscribe.
+     * @see #onPlayReceive(byte, PacketListenerPriority, Function, PacketSubscriber)
+     */
+    default <W extends WrappedPacket> PacketListenerAbstract onPlaySend(byte packetID, PacketListenerPriority priority,
+                                                                       Function<NMSPacket, W> wrapperFactory,
+                                                                       PacketSubscriber<PacketPlaySendEvent, W> subscriber) {
+        PacketListenerAbstract subscription = PacketSubscription.send(packetID, priority, wrapperFactory, subscriber);
+        PEEventManager.EVENT_MANAGER_MODERN.registerListener(subscription);
+        return subscription;
+    }
+
+    /**
+     * Subscribe to an outgoing PLAY packet with the {@link PacketListenerPriority#NORMAL} priority.
+     *
+     * @param packetID       Packet ID of an outgoing PLAY packet.
+     * @param wrapperFactory Creates the wrapper of the packet.
+     * @param subscriber     {@link PacketSubscriber}
+     * @param <W>            Type of the wrapper.
+     * @return Listener representing the subscription.
+     * @see #onPlaySend(byte, PacketListenerPriority, Function, PacketSubscriber)
+     */
+    default <W extends WrappedPacket> PacketListenerAbstract onPlaySend(byte packetID, Function<NMSPacket, W> wrapperFactory,
+                                                                       PacketSubscriber<PacketPlaySendEvent, W> subscriber) {
+        return onPlaySend(packetID, PacketListenerPriority.NORMAL, wrapperFactory, subscriber);
+    }
+
+    /**
+     * Register a PacketListenerAbstract listener scoped to the connection of one player.
+     * The listener is only called for the packets of that player and is dropped automatically when the player quits.
+     * Scoped listeners are called after the global listeners.
+     * They do not receive batches, see {@link PacketListenerAbstract#onPacketPlayReceiveBatch(io.github.retrooper.packetevents.event.impl.PacketPlayReceiveBatchEvent)}.
+     *
+     * @param player   Player whose packets the listener receives.
+     * @param listener {@link PacketListenerAbstract}
+     * @return Has the listener been registered? False if the player has not been injected (yet).
+     * @see PlayerListeners
+     */
+    default boolean registerPlayerListener(Player player, PacketListenerAbstract listener) {
+        PlayerListeners playerListeners = getPlayerListeners(player);
+        if (playerListeners == null) {
+            return false;
+        }
+        playerListeners.register(listener);
+        return true;
+    }
+
+    /**
+     * Unregister a PacketListenerAbstract listener scoped to the connection of one player.
+     *
+     * @param player   Player whose packets the listener receives.
+     * @param listener {@link PacketListenerAbstract}
+     * @return Was the listener registered for the player?
+     */
+    default boolean unregisterPlayerListener(Player player, PacketListenerAbstract listener) {
+        PlayerListeners playerListeners = getPlayerListeners(player);
+        return playerListeners != null && playerListeners.unregister(listener);
+    }
+
+    /**
+     * Get the packet listeners scoped to the connection of one player.
+     *
+     * @param player Player
+     * @return Scoped listeners, null if the player has not been injected (yet).
+     */
+    default PlayerListeners getPlayerListeners(Player player) {
+        Object channel = PacketEvents.get().getPlayerUtils().getChannel(player);
+        return channel == null ? null : PacketEvents.get().getInjector().getPlayerListeners(channel);
+    }
+
     /**
      * Unregister a PacketListenerAbstract listener.
      *
@@ -23,20 +23,32 @@ import io.github.retrooper.packetevents.event.PacketListener;
 import io.github.retrooper.packetevents.event.annotation.PacketHandler;
 import io.github.retrooper.packetevents.event.eventtypes.CancellableEvent;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Deprecated
 class EventManagerLegacy {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, PacketListener.class, PacketEvent.class);
+    private static final RegisteredHandler[] EMPTY_HANDLERS = new RegisteredHandler[0];
     /**
      * Map storing all all legacy packet event listeners.
-     * The key is an individual listener, the values are the key's event methods.
+     * The key is an individual listener, the values are the key's resolved event methods.
+     * Only accessed by the synchronized registration methods, which publish a new snapshot after every change.
      */
-
-    private final Map<PacketListener, HashSet<Method>> staticRegisteredMethods = new HashMap<>();
+    private final Map<PacketListener, RegisteredHandler[]> staticRegisteredMethods = new LinkedHashMap<>();
+    /**
+     * Immutable snapshot of {@link #staticRegisteredMethods}.
+     * Netty threads read it without locking, registering a listener replaces it.
+     */
+    private volatile HandlerSnapshot snapshot = new HandlerSnapshot(EMPTY_HANDLERS);
 
     /**
      * Call a PacketEvent with the legacy event manager.
@@ -54,32 +66,29 @@ class EventManagerLegacy {
      */
     @Deprecated
     public void callEvent(final PacketEvent event, byte eventPriority) {
+        RegisteredHandler[] handlers = snapshot.getHandlers(event.getClass());
+        if (handlers.length == 0) {
+            return;
+        }
         boolean isCancelled = false;
         if (event instanceof CancellableEvent) {
             isCancelled = ((CancellableEvent) event).isCancelled();
         }
         //STATIC LISTENERS
-        for (final PacketListener listener : staticRegisteredMethods.keySet()) {
-            HashSet<Method> methods = staticRegisteredMethods.get(listener);
-
-            for (Method method : methods) {
-                Class<?> parameterType = method.getParameterTypes()[0];
-                if (parameterType.equals(PacketEvent.class)
-                        || parameterType.isInstance(event)) {
-
-                    PacketHandler annotation = method.getAnnotation(PacketHandler.class);
-                    try {
-                        method.invoke(listener, event);
-                    } catch (IllegalAccessException | InvocationTargetException ex) {
-                        ex.printStackTrace();
-                    }
-                    if (event instanceof CancellableEvent) {
-                        CancellableEvent ce = (CancellableEvent) event;
-                        if (annotation.priority() >= eventPriority) {
-                            eventPriority = annotation.priority();
-                            isCancelled = ce.isCancelled();
-                        }
-                    }
+        for (RegisteredHandler handler : handlers) {
+            if (PEEventManager.LISTENER_FAULTS.isSuspended(handler.listener)) {
+                continue;
+            }
+            try {
+                handler.invoker.invokeExact(handler.listener, event);
+            } catch (Throwable throwable) {
+                PEEventManager.LISTENER_FAULTS.handle(handler.listener, throwable);
+            }
+            if (event instanceof CancellableEvent) {
+                CancellableEvent ce = (CancellableEvent) event;
+                if (handler.priority >= eventPriority) {
+                    eventPriority = handler.priority;
+                    isCancelled = ce.isCancelled();
                 }
             }
         }
@@ -89,6 +98,27 @@ class EventManagerLegacy {
         }
     }
 
+    /**
+     * Does any legacy event method accept events of the given type?
+     * Legacy listeners have no packet ID filters, so they are interested in every packet of an accepted event type.
+     *
+     * @param type Type of the event.
+     * @return Is there a legacy event method accepting the event type?
+     */
+    public boolean hasInterest(PacketEventType type) {
+        return snapshot.interest[type.ordinal()];
+    }
+
+    /**
+     * Does any legacy event method accept events of incoming or outgoing packets?
+     *
+     * @param inbound Incoming packets? Otherwise outgoing packets.
+     * @return Is there a legacy event method accepting an event type of the direction?
+     */
+    public boolean hasDirectionalInterest(boolean inbound) {
+        return inbound ? snapshot.inboundInterest : snapshot.outboundInterest;
+    }
+
     /**
      * Register a legacy packet event listener.
      * Not recommended to use the deprecated event listener.
@@ -96,20 +126,26 @@ class EventManagerLegacy {
      * @param listener {@link PacketListener}
      */
     @Deprecated
-    public void registerListener(final PacketListener listener) {
-        final HashSet<Method> methods = new HashSet<>();
+    public synchronized void registerListener(final PacketListener listener) {
+        final List<RegisteredHandler> handlers = new ArrayList<>();
         for (final Method m : listener.getClass().getDeclaredMethods()) {
-            if (!m.isAccessible()) {
-                m.setAccessible(true);
-            }
             if (m.isAnnotationPresent(PacketHandler.class)
-                    && m.getParameterTypes().length == 1) {
-                methods.add(m);
+                    && m.getParameterTypes().length == 1
+                    && !m.getParameterTypes()[0].isPrimitive()) {
+                if (!m.isAccessible()) {
+                    m.setAccessible(true);
+                }
+                try {
+                    handlers.add(new RegisteredHandler(listener, m));
+                } catch (IllegalAccessException ex) {
+                    ex.printStackTrace();
+                }
             }
         }
 
-        if (!methods.isEmpty()) {
-            staticRegisteredMethods.put(listener, methods);
+        if (!handlers.isEmpty()) {
+            staticRegisteredMethods.put(listener, handlers.toArray(EMPTY_HANDLERS));
+            publishSnapshot();
         }
     }
 
@@ -120,7 +156,7 @@ class EventManagerLegacy {
      * @param listeners {@link PacketListener}
      */
     @Deprecated
-    public void registerListeners(final PacketListener... listeners) {
+    public synchronized void registerListeners(final PacketListener... listeners) {
         for (final PacketListener listener : listeners) {
             registerListener(listener);
         }
@@ -133,8 +169,11 @@ class EventManagerLegacy {
      * @param listener {@link PacketListener}
      */
     @Deprecated
-    public void unregisterListener(final PacketListener listener) {
-        staticRegisteredMethods.remove(listener);
+    public synchronized void unregisterListener(final PacketListener listener) {
+        if (staticRegisteredMethods.remove(listener) != null) {
+            PEEventManager.LISTENER_FAULTS.forget(listener);
+            publishSnapshot();
+        }
     }
 
     /**
@@ -144,7 +183,7 @@ class EventManagerLegacy {
      * @param listeners {@link PacketListener}
      */
     @Deprecated
-    public void unregisterListeners(final PacketListener... listeners) {
+    public synchronized void unregisterListeners(final PacketListener... listeners) {
         for (final PacketListener listener : listeners) {
             unregisterListener(listener);
         }
@@ -154,7 +193,98 @@ class EventManagerLegacy {
      * Unregister all legacy packet event listeners.
      */
     @Deprecated
-    public void unregisterAllListeners() {
+    public synchronized void unregisterAllListeners() {
+        for (PacketListener listener : staticRegisteredMethods.keySet()) {
+            PEEventManager.LISTENER_FAULTS.forget(listener);
+        }
         staticRegisteredMethods.clear();
+        publishSnapshot();
+    }
+
+    /**
+     * Rebuild the handler snapshot from the registered listeners and publish it to the dispatching threads.
+     */
+    private void publishSnapshot() {
+        List<RegisteredHandler> handlers = new ArrayList<>();
+        for (RegisteredHandler[] listenerHandlers : staticRegisteredMethods.values()) {
+            for (RegisteredHandler handler : listenerHandlers) {
+                handlers.add(handler);
+            }
+        }
+        snapshot = new HandlerSnapshot(handlers.toArray(EMPTY_HANDLERS));
+    }
+
+    /**
+     * Immutable view of every registered event method, in registration order.
+     * The event methods accepting an event class are resolved on the first event of that class and then cached.
+     */
+    private static final class HandlerSnapshot {
+        private final RegisteredHandler[] handlers;
+        private final Map<Class<?>, RegisteredHandler[]> handlersByEventClass = new ConcurrentHashMap<>();
+        /**
+         * Does any event method accept an event of the {@link PacketEventType} at the ordinal?
+         */
+        private final boolean[] interest;
+        private final boolean inboundInterest;
+        private final boolean outboundInterest;
+
+        private HandlerSnapshot(RegisteredHandler[] handlers) {
+            this.handlers = handlers;
+            PacketEventType[] types = PacketEventType.values();
+            this.interest = new boolean[types.length];
+            boolean inboundInterest = false;
+            boolean outboundInterest = false;
+            for (PacketEventType type : types) {
+                interest[type.ordinal()] = getHandlers(type.getEventClass()).length != 0;
+                if (type.isInbound()) {
+                    inboundInterest |= interest[type.ordinal()];
+                } else {
+                    outboundInterest |= interest[type.ordinal()];
+                }
+            }
+            this.inboundInterest = inboundInterest;
+            this.outboundInterest = outboundInterest;
+        }
+
+        private RegisteredHandler[] getHandlers(Class<?> eventClass) {
+            if (handlers.length == 0) {
+                return EMPTY_HANDLERS;
+            }
+            RegisteredHandler[] eventHandlers = handlersByEventClass.get(eventClass);
+            if (eventHandlers == null) {
+                List<RegisteredHandler> matchingHandlers = new ArrayList<>();
+                for (RegisteredHandler handler : handlers) {
+                    if (handler.eventClass.isAssignableFrom(eventClass)) {
+                        matchingHandlers.add(handler);
+                    }
+                }
+                eventHandlers = matchingHandlers.toArray(EMPTY_HANDLERS);
+                handlersByEventClass.put(eventClass, eventHandlers);
+            }
+            return eventHandlers;
+        }
+    }
+
+    /**
+     * A resolved {@link PacketHandler} method.
+     * The accepted event class and the priority are read once on registration,
+     * the method is invoked through a method handle instead of reflection.
+     */
+    private static final class RegisteredHandler {
+        private final PacketListener listener;
+        private final Class<?> eventClass;
+        private final byte priority;
+        private final MethodHandle invoker;
+
+        private RegisteredHandler(PacketListener listener, Method method) throws IllegalAccessException {
+            this.listener = listener;
+            this.eventClass = method.getParameterTypes()[0];
+            this.priority = method.getAnnotation(PacketHandler.class).priority();
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, PacketListener.class);
+            }
+            this.invoker = handle.asType(INVOKER_TYPE);
+        }
     }
-}
\ No newline at end of file
+}
@@ -18,24 +18,49 @@
 
 package io.github.retrooper.packetevents.event.manager;
 
-import io.github.retrooper.packetevents.PacketEvents;
 import io.github.retrooper.packetevents.event.PacketEvent;
 import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.PacketListenerPriority;
 import io.github.retrooper.packetevents.event.eventtypes.CancellableEvent;
+import io.github.retrooper.packetevents.event.eventtypes.NMSPacketEvent;
+import io.github.retrooper.packetevents.event.impl.PacketPlayReceiveBatchEvent;
 import io.github.retrooper.packetevents.event.priority.PacketEventPriority;
-import io.github.retrooper.packetevents.event.PacketListenerPriority;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Level;
+import java.util.Set;
 
 class EventManagerModern {
-    private final Map<Byte, HashSet<PacketListenerAbstract>> listenersMap = new ConcurrentHashMap<>();
+    private static final PacketListenerAbstract[] EMPTY_LISTENERS = new PacketListenerAbstract[0];
+    private static final AsyncPacketListener[] EMPTY_ASYNC_LISTENERS = new AsyncPacketListener[0];
+    private static final int PACKET_ID_COUNT = 256;
+    private static final int PACKET_ID_OFFSET = 128;
+    private static final int INTEREST_WORDS = PACKET_ID_COUNT / Long.SIZE;
+    /**
+     * Registered listeners by priority.
+     * Only accessed by the synchronized registration methods, which publish a new {@link ListenerSnapshot} after every change.
+     */
+    private final Map<Byte, Set<PacketListenerAbstract>> listenersMap = new HashMap<>();
+    /**
+     * Asynchronous listeners and the stand-ins registered in their place.
+     * Only accessed by the synchronized registration methods.
+     */
+    private final Map<PacketListenerAbstract, AsyncPacketListener> asyncListeners = new HashMap<>();
+    /**
+     * Immutable snapshot of the registered listeners.
+     * Netty threads read it without locking, registering a listener replaces it.
+     */
+    private volatile ListenerSnapshot snapshot = new ListenerSnapshot(EMPTY_LISTENERS);
 
     /**
      * Call the PacketEvent.
      * This method processes the event on all the registered dynamic packet event listeners.
+     * Exceptions thrown by the listeners are accounted for by the {@link ListenerFaultHandler},
+     * listeners it suspended are skipped.
+     * Once the event has been cancelled, listeners ignoring cancelled events are skipped.
      * The {@link PacketEventPriority#LOWEST} prioritized listeners will be processing first,
      * the {@link PacketEventPriority#MONITOR} will be processing last and can
      * be the final decider whether the event has been cancelled or not.
@@ -45,27 +70,160 @@ class EventManagerModern {
      * @see EventManagerLegacy#callEvent(PacketEvent, byte)
      */
     public void callEvent(final PacketEvent event) {
-        byte highestReachedPriority = (byte) (PacketListenerPriority.LOWEST.getId() - 1);
-        for (byte priority = PacketListenerPriority.LOWEST.getId(); priority <= PacketListenerPriority.MONITOR.getId(); priority++) {
-            HashSet<PacketListenerAbstract> listeners = listenersMap.get(priority);
-            if (listeners != null) {
-                for (PacketListenerAbstract listener : listeners) {
-                    try {
-                        event.call(listener);
-                    } catch (Exception ex) {
-                        PacketEvents.get().getPlugin().getLogger()
-                                .log(Level.SEVERE, "PacketEvents found an exception while calling a packet listener.", ex);
-                    }
-                    //TODO Remove, because its redundant. We are only keeping it for compatibility with the legacy event manager.
-                    if (event instanceof CancellableEvent) {
-                        if (priority > highestReachedPriority) {
-                            highestReachedPriority = priority;
-                        }
+        callEvent(event, null);
+    }
+
+    /**
+     * Call the PacketEvent on the dynamic, the legacy and the scoped listeners of a player.
+     * The scoped listeners are called in priority order together with the dynamic listeners,
+     * a dynamic listener goes first if both have the same priority.
+     * Asynchronous listeners are handed the event last, once every synchronous listener is done,
+     * so their read-only copy carries the final cancellation state and the final packet.
+     *
+     * @param event           {@link PacketEvent}
+     * @param playerListeners Scoped listeners of the player, null if there are none.
+     */
+    public void callEvent(final PacketEvent event, final PlayerListeners playerListeners) {
+        ListenerSnapshot snapshot = this.snapshot;
+        PacketListenerAbstract[] registeredListeners = snapshot.listeners;
+        PacketEventType type = PacketEventType.getType(event);
+        AsyncPacketListener[] asyncListeners = EMPTY_ASYNC_LISTENERS;
+        if (type != null) {
+            byte packetID = ((NMSPacketEvent) event).getPacketId();
+            int index = packetID + PACKET_ID_OFFSET;
+            asyncListeners = snapshot.asyncTables[type.ordinal()][index];
+            PacketListenerAbstract[] listeners = snapshot.dispatchTables[type.ordinal()][index];
+            int[] cancelledSkips = snapshot.cancelledSkips[type.ordinal()][index];
+            CancellableEvent cancellableEvent = cancelledSkips == null ? null : (CancellableEvent) event;
+            boolean timed = PEEventManager.DISPATCH_TIMINGS.isEnabled();
+            NMSPacketEvent packetEvent = (NMSPacketEvent) event;
+            PacketListenerAbstract[] scopedListeners = playerListeners == null ? EMPTY_LISTENERS : playerListeners.getListeners();
+            int scopedIndex = 0;
+            int i = 0;
+            //The end of one timed call is the start of the next one, so timing a listener reads the clock once.
+            long start = timed ? System.nanoTime() : 0L;
+            while (i < listeners.length) {
+                PacketListenerAbstract listener = listeners[i];
+                if (scopedIndex < scopedListeners.length) {
+                    //Scoped listeners of a lower priority go first, they might still cancel or uncancel the event.
+                    int scopedEnd = PlayerListeners.callEvent(scopedListeners, scopedIndex, listener.getPriority().getId(),
+                            type, packetEvent, packetID);
+                    if (timed && scopedEnd != scopedIndex) {
+                        start = System.nanoTime();
                     }
+                    scopedIndex = scopedEnd;
+                }
+                if (cancellableEvent != null && cancellableEvent.isCancelled() && cancelledSkips[i] != i) {
+                    //Jump to the next listener that wants cancelled events.
+                    i = cancelledSkips[i];
+                    continue;
+                }
+                i++;
+                if (PEEventManager.LISTENER_FAULTS.isSuspended(listener)) {
+                    continue;
+                }
+                try {
+                    type.invoke(listener, event);
+                } catch (Exception ex) {
+                    PEEventManager.LISTENER_FAULTS.handle(listener, ex);
                 }
+                if (timed) {
+                    long end = System.nanoTime();
+                    PEEventManager.DISPATCH_TIMINGS.record(listener, type, packetID, end - start);
+                    start = end;
+                }
+            }
+            if (scopedIndex < scopedListeners.length) {
+                PlayerListeners.callEvent(scopedListeners, scopedIndex, Byte.MAX_VALUE, type, packetEvent, packetID);
             }
+        } else {
+            for (PacketListenerAbstract listener : registeredListeners) {
+                if (listener.isIgnoringCancelled() && event instanceof CancellableEvent
+                        && ((CancellableEvent) event).isCancelled()) {
+                    continue;
+                }
+                if (PEEventManager.LISTENER_FAULTS.isSuspended(listener)) {
+                    continue;
+                }
+                try {
+                    event.call(listener);
+                } catch (Exception ex) {
+                    PEEventManager.LISTENER_FAULTS.handle(listener, ex);
+                }
+            }
+        }
+        //TODO Remove, because its redundant. We are only keeping it for compatibility with the legacy event manager.
+        byte highestReachedPriority = (byte) (PacketListenerPriority.LOWEST.getId() - 1);
+        if (event instanceof CancellableEvent && registeredListeners.length != 0) {
+            highestReachedPriority = registeredListeners[registeredListeners.length - 1].getPriority().getId();
         }
         PEEventManager.EVENT_MANAGER_LEGACY.callEvent(event, highestReachedPriority);
+        if (asyncListeners.length != 0) {
+            NMSPacketEvent packetEvent = (NMSPacketEvent) event;
+            //The copies read the NMS packet, so memoized writes have to reach it first.
+            packetEvent.flushWrappers();
+            for (AsyncPacketListener asyncListener : asyncListeners) {
+                asyncListener.enqueue(packetEvent);
+            }
+        }
+    }
+
+    /**
+     * Does any dynamic listener want to receive an event of the given type with the given packet ID?
+     *
+     * @param type     Type of the event.
+     * @param packetID Packet ID
+     * @return Is the dispatch table of the packet ID not empty?
+     */
+    public boolean hasInterest(PacketEventType type, byte packetID) {
+        int index = packetID + PACKET_ID_OFFSET;
+        return (snapshot.interest[type.ordinal() * INTEREST_WORDS + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * Does any dynamic listener want to receive an event of any type with the given packet ID in the given direction?
+     * Packet IDs are unique across all packet states, so one bitmap per direction suffices.
+     *
+     * @param inbound  Incoming packets? Otherwise outgoing packets.
+     * @param packetID Packet ID
+     * @return Does the packet have to be processed for a dynamic listener?
+     */
+    public boolean hasDirectionalInterest(boolean inbound, byte packetID) {
+        int index = packetID + PACKET_ID_OFFSET;
+        long[] interest = inbound ? snapshot.inboundInterest : snapshot.outboundInterest;
+        return (interest[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Does any dynamic listener receive {@link PacketPlayReceiveBatchEvent}s containing the packet ID?
+     *
+     * @param packetID Packet ID of an incoming PLAY packet.
+     * @return Does the allowance filter of a batch listener accept the packet ID?
+     */
+    public boolean hasBatchInterest(byte packetID) {
+        int index = packetID + PACKET_ID_OFFSET;
+        return (snapshot.batchInterest[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Call the {@link PacketPlayReceiveBatchEvent} on the dynamic listeners overriding
+     * {@link PacketListenerAbstract#onPacketPlayReceiveBatch(PacketPlayReceiveBatchEvent)}.
+     * Legacy listeners and listeners that do not receive batches are never visited.
+     *
+     * @param event {@link PacketPlayReceiveBatchEvent}
+     */
+    public void callBatchEvent(final PacketPlayReceiveBatchEvent event) {
+        for (PacketListenerAbstract listener : snapshot.batchListeners) {
+            if (PEEventManager.LISTENER_FAULTS.isSuspended(listener)) {
+                continue;
+            }
+            try {
+                //Applies the allowance filter of the listener.
+                event.call(listener);
+            } catch (Exception ex) {
+                PEEventManager.LISTENER_FAULTS.handle(listener, ex);
+            }
+        }
     }
 
     /**
@@ -74,13 +232,8 @@ class EventManagerModern {
      * @param listener {@link PacketListenerAbstract}
      */
     public synchronized void registerListener(final PacketListenerAbstract listener) {
-        byte priority = listener.getPriority().getId();
-        HashSet<PacketListenerAbstract> listenerSet = listenersMap.get(priority);
-        if (listenerSet == null) {
-            listenerSet = new HashSet<>();
-        }
-        listenerSet.add(listener);
-        listenersMap.put(priority, listenerSet);
+        addListener(listener);
+        publishSnapshot();
     }
 
     /**
@@ -90,8 +243,35 @@ class EventManagerModern {
      */
     public synchronized void registerListeners(PacketListenerAbstract... listeners) {
         for (PacketListenerAbstract listener : listeners) {
-            registerListener(listener);
+            addListener(listener);
         }
+        publishSnapshot();
+    }
+
+    /**
+     * Register a dynamic packet event listener that processes packet events asynchronously.
+     * If the listener has already been registered asynchronously, it is re-registered with the new settings.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @param settings {@link AsyncListenerSettings}
+     */
+    public synchronized void registerAsyncListener(final PacketListenerAbstract listener, final AsyncListenerSettings settings) {
+        removeListener(listener);
+        AsyncPacketListener asyncListener = new AsyncPacketListener(listener, settings);
+        asyncListeners.put(listener, asyncListener);
+        addListener(asyncListener);
+        publishSnapshot();
+    }
+
+    /**
+     * Get the queue metrics of an asynchronous listener.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @return Metrics, null if the listener is not registered asynchronously.
+     */
+    public synchronized AsyncListenerMetrics getAsyncListenerMetrics(final PacketListenerAbstract listener) {
+        AsyncPacketListener asyncListener = asyncListeners.get(listener);
+        return asyncListener == null ? null : asyncListener.getMetrics();
     }
 
     /**
@@ -100,11 +280,8 @@ class EventManagerModern {
      * @param listener {@link PacketListenerAbstract}
      */
     public synchronized void unregisterListener(final PacketListenerAbstract listener) {
-        byte priority = listener.getPriority().getId();
-        HashSet<PacketListenerAbstract> listenerSet = listenersMap.get(priority);
-        if (listenerSet != null) {
-            listenerSet.remove(listener);
-        }
+        removeListener(listener);
+        publishSnapshot();
     }
 
     /**
@@ -114,14 +291,225 @@ class EventManagerModern {
      */
     public synchronized void unregisterListeners(PacketListenerAbstract... listeners) {
         for (PacketListenerAbstract listener : listeners) {
-            unregisterListener(listener);
+            removeListener(listener);
         }
+        publishSnapshot();
     }
 
     /**
      * Unregister all dynamic packet event listeners.
      */
     public synchronized void unregisterAllListeners() {
+        for (AsyncPacketListener asyncListener : asyncListeners.values()) {
+            asyncListener.shutdown();
+            PEEventManager.LISTENER_FAULTS.forget(asyncListener.getListener());
+            PEEventManager.DISPATCH_TIMINGS.forget(asyncListener.getListener());
+        }
+        asyncListeners.clear();
+        for (Set<PacketListenerAbstract> listenerSet : listenersMap.values()) {
+            for (PacketListenerAbstract listener : listenerSet) {
+                PEEventManager.LISTENER_FAULTS.forget(listener);
+                PEEventManager.DISPATCH_TIMINGS.forget(listener);
+            }
+        }
         listenersMap.clear();
+        publishSnapshot();
+    }
+
+    /**
+     * Rebuild the dispatch tables if the listener is registered.
+     * The allowance filters of a listener are only read while building the dispatch tables,
+     * so this has to be called when they are modified after the listener has been registered.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     */
+    public synchronized void refreshListener(final PacketListenerAbstract listener) {
+        AsyncPacketListener asyncListener = asyncListeners.get(listener);
+        if (asyncListener != null) {
+            //The stand-in reports the allowance filters of the listener, its queue and metrics are kept.
+            publishSnapshot();
+            return;
+        }
+        Set<PacketListenerAbstract> listenerSet = listenersMap.get(listener.getPriority().getId());
+        if (listenerSet != null && listenerSet.contains(listener)) {
+            publishSnapshot();
+        }
+    }
+
+    private void addListener(PacketListenerAbstract listener) {
+        listenersMap.computeIfAbsent(listener.getPriority().getId(), priority -> new LinkedHashSet<>()).add(listener);
+    }
+
+    private void removeListener(PacketListenerAbstract listener) {
+        PEEventManager.LISTENER_FAULTS.forget(listener);
+        PEEventManager.DISPATCH_TIMINGS.forget(listener);
+        AsyncPacketListener asyncListener = asyncListeners.remove(listener);
+        if (asyncListener != null) {
+            asyncListener.shutdown();
+            listener = asyncListener;
+        }
+        Set<PacketListenerAbstract> listenerSet = listenersMap.get(listener.getPriority().getId());
+        if (listenerSet != null) {
+            listenerSet.remove(listener);
+        }
+    }
+
+    /**
+     * Rebuild the listener snapshot from the registered listeners and publish it to the dispatching threads.
+     */
+    private void publishSnapshot() {
+        List<PacketListenerAbstract> orderedListeners = new ArrayList<>();
+        for (byte priority = PacketListenerPriority.LOWEST.getId(); priority <= PacketListenerPriority.MONITOR.getId(); priority++) {
+            Set<PacketListenerAbstract> listenerSet = listenersMap.get(priority);
+            if (listenerSet != null) {
+                orderedListeners.addAll(listenerSet);
+            }
+        }
+        snapshot = new ListenerSnapshot(orderedListeners.toArray(EMPTY_LISTENERS));
+    }
+
+    /**
+     * Immutable view of the registered listeners and their dispatch tables.
+     * A snapshot is never modified after it has been published.
+     */
+    private static final class ListenerSnapshot {
+        /**
+         * Every registered listener ordered by priority.
+         * Used to dispatch events that have no dispatch table, like custom events.
+         */
+        private final PacketListenerAbstract[] listeners;
+        /**
+         * Priority ordered listeners for every {@link PacketEventType} and packet ID.
+         * Indexed by the ordinal of the event type and the packet ID + 128.
+         * Only listeners whose allowance filters accept the packet ID are part of a table.
+         * Stand-ins of asynchronous listeners are kept in {@link #asyncTables} instead.
+         */
+        private final PacketListenerAbstract[][][] dispatchTables;
+        /**
+         * Stand-ins of asynchronous listeners for every {@link PacketEventType} and packet ID, indexed like the dispatch tables.
+         * They are handed the event after it has been dispatched to every synchronous listener.
+         */
+        private final AsyncPacketListener[][][] asyncTables;
+        /**
+         * Bitmap of the packet IDs with a non-empty dispatch table.
+         * Every {@link PacketEventType} owns four words, one bit per packet ID + 128.
+         */
+        private final long[] interest;
+        /**
+         * For every dispatch table of a cancellable event type, the index of the first listener at or after
+         * each position that does not ignore cancelled events, or the length of the table if there is none.
+         * Null if no listener of the table ignores cancelled events.
+         */
+        private final int[][][] cancelledSkips;
+        /**
+         * Bitmap of the incoming PLAY packet IDs a listener overriding
+         * {@link PacketListenerAbstract#onPacketPlayReceiveBatch(PacketPlayReceiveBatchEvent)} accepts.
+         */
+        private final long[] batchInterest = new long[INTEREST_WORDS];
+        /**
+         * Listeners overriding {@link PacketListenerAbstract#onPacketPlayReceiveBatch(PacketPlayReceiveBatchEvent)},
+         * ordered by priority.
+         */
+        private final PacketListenerAbstract[] batchListeners;
+        /**
+         * Union of the interest bitmaps of every server-bound event type and the batch interest.
+         */
+        private final long[] inboundInterest = new long[INTEREST_WORDS];
+        /**
+         * Union of the interest bitmaps of every client-bound event type.
+         */
+        private final long[] outboundInterest = new long[INTEREST_WORDS];
+
+        private ListenerSnapshot(PacketListenerAbstract[] listeners) {
+            this.listeners = listeners;
+            PacketEventType[] types = PacketEventType.values();
+            this.dispatchTables = new PacketListenerAbstract[types.length][PACKET_ID_COUNT][];
+            this.asyncTables = new AsyncPacketListener[types.length][PACKET_ID_COUNT][];
+            this.cancelledSkips = new int[types.length][PACKET_ID_COUNT][];
+            this.interest = new long[types.length * INTEREST_WORDS];
+            List<PacketListenerAbstract> allowedListeners = new ArrayList<>(listeners.length);
+            List<AsyncPacketListener> allowedAsyncListeners = new ArrayList<>();
+            List<PacketListenerAbstract> batchListeners = new ArrayList<>();
+            for (PacketListenerAbstract listener : listeners) {
+                if (receivesBatches(listener)) {
+                    batchListeners.add(listener);
+                    for (int index = 0; index < PACKET_ID_COUNT; index++) {
+                        if (PacketEventType.PLAY_RECEIVE.isAllowed(listener, (byte) (index - PACKET_ID_OFFSET))) {
+                            batchInterest[index >>> 6] |= 1L << index;
+                        }
+                    }
+                }
+            }
+            this.batchListeners = batchListeners.toArray(EMPTY_LISTENERS);
+            for (PacketEventType type : types) {
+                PacketListenerAbstract[][] table = dispatchTables[type.ordinal()];
+                for (int index = 0; index < PACKET_ID_COUNT; index++) {
+                    byte packetID = (byte) (index - PACKET_ID_OFFSET);
+                    for (PacketListenerAbstract listener : listeners) {
+                        if (type.isAllowed(listener, packetID)) {
+                            if (listener instanceof AsyncPacketListener) {
+                                allowedAsyncListeners.add((AsyncPacketListener) listener);
+                            } else {
+                                allowedListeners.add(listener);
+                            }
+                        }
+                    }
+                    if (allowedListeners.isEmpty()) {
+                        table[index] = EMPTY_LISTENERS;
+                    } else {
+                        table[index] = allowedListeners.toArray(EMPTY_LISTENERS);
+                        if (type.isCancellable()) {
+                            cancelledSkips[type.ordinal()][index] = buildCancelledSkips(table[index]);
+                        }
+                    }
+                    asyncTables[type.ordinal()][index] = allowedAsyncListeners.isEmpty()
+                            ? EMPTY_ASYNC_LISTENERS : allowedAsyncListeners.toArray(EMPTY_ASYNC_LISTENERS);
+                    if (!allowedListeners.isEmpty() || !allowedAsyncListeners.isEmpty()) {
+                        interest[type.ordinal() * INTEREST_WORDS + (index >>> 6)] |= 1L << index;
+                    }
+                    allowedListeners.clear();
+                    allowedAsyncListeners.clear();
+                }
+                long[] directionalInterest = type.isInbound() ? inboundInterest : outboundInterest;
+                for (int word = 0; word < INTEREST_WORDS; word++) {
+                    directionalInterest[word] |= interest[type.ordinal() * INTEREST_WORDS + word];
+                }
+            }
+            for (int word = 0; word < INTEREST_WORDS; word++) {
+                inboundInterest[word] |= batchInterest[word];
+            }
+        }
+
+        private static boolean receivesBatches(PacketListenerAbstract listener) {
+            if (listener instanceof AsyncPacketListener) {
+                //The stand-in queues batches if the asynchronous listener receives them.
+                listener = ((AsyncPacketListener) listener).getListener();
+            }
+            try {
+                return listener.getClass().getMethod("onPacketPlayReceiveBatch", PacketPlayReceiveBatchEvent.class)
+                        .getDeclaringClass() != PacketListenerAbstract.class;
+            } catch (NoSuchMethodException ex) {
+                return false;
+            }
+        }
+
+        private static int[] buildCancelledSkips(PacketListenerAbstract[] table) {
+            boolean ignoringCancelled = false;
+            for (PacketListenerAbstract listener : table) {
+                ignoringCancelled |= listener.isIgnoringCancelled();
+            }
+            if (!ignoringCancelled) {
+                return null;
+            }
+            int[] skips = new int[table.length];
+            int next = table.length;
+            for (int i = table.length - 1; i >= 0; i--) {
+                if (!table[i].isIgnoringCancelled()) {
+                    next = i;
+                }
+                skips[i] = next;
+            }
+            return skips;
+        }
     }
-}
\ No newline at end of file
+}
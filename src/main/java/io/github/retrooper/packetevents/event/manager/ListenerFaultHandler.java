@@ -0,0 +1,212 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.settings.PacketEventsSettings;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Accounts for the exceptions thrown by packet listeners.
+ * A listener throwing on every packet would otherwise log a full stack trace per packet on the netty thread.
+ * Instead, one sample stack trace is logged per listener and log interval,
+ * together with the amount of exceptions that were not logged since the previous sample.
+ * That amount is also reported when the listener is suspended, probed again or unregistered,
+ * so that it does not stay hidden once the listener stops failing.
+ * If the failure threshold is configured, a listener failing too often within one second is suspended
+ * for the configured suspension time and probed again afterwards.
+ * A listener failing again within one second of being probed is suspended right away.
+ *
+ * @author retrooper
+ * @see PacketEventsSettings#listenerFailureThreshold(int)
+ * @since 1.8
+ */
+final class ListenerFaultHandler {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private final Map<Object, ListenerFaults> faults = new ConcurrentHashMap<>();
+    /**
+     * Amount of currently suspended listeners.
+     * As long as no listener is suspended, checking for a suspension does not require a map lookup.
+     */
+    private final AtomicInteger suspendedListeners = new AtomicInteger();
+
+    /**
+     * Should calling the listener be skipped, because it has been suspended by the circuit breaker?
+     *
+     * @param listener Dynamic or legacy listener.
+     * @return Is the listener suspended?
+     */
+    boolean isSuspended(Object listener) {
+        if (suspendedListeners.get() == 0) {
+            return false;
+        }
+        ListenerFaults listenerFaults = faults.get(listener);
+        return listenerFaults != null && listenerFaults.isSuspended();
+    }
+
+    /**
+     * Account for an exception thrown by a listener.
+     *
+     * @param listener  Dynamic or legacy listener.
+     * @param throwable Thrown exception.
+     */
+    void handle(Object listener, Throwable throwable) {
+        faults.computeIfAbsent(listener, key -> new ListenerFaults(key.getClass().getName())).handle(throwable);
+    }
+
+    /**
+     * Discard the exception accounting of an unregistered listener.
+     *
+     * @param listener Dynamic or legacy listener.
+     */
+    void forget(Object listener) {
+        ListenerFaults listenerFaults = faults.remove(listener);
+        if (listenerFaults != null) {
+            listenerFaults.resume();
+            String summary = listenerFaults.takeUnloggedSummary();
+            if (summary != null) {
+                PacketEvents.get().getPlugin().getLogger()
+                        .warning("The packet listener " + listenerFaults.listenerName + " has been unregistered." + summary);
+            }
+        }
+    }
+
+    private final class ListenerFaults {
+        private final String listenerName;
+        private volatile boolean suspended;
+        private long suspendedUntil;
+        private boolean probing;
+        private long probeStart;
+        private long windowStart;
+        private int windowFailures;
+        private boolean logged;
+        private long lastLog;
+        private long unlogged;
+
+        private ListenerFaults(String listenerName) {
+            this.listenerName = listenerName;
+        }
+
+        private boolean isSuspended() {
+            if (!suspended) {
+                return false;
+            }
+            String summary;
+            synchronized (this) {
+                if (!suspended) {
+                    return false;
+                }
+                long now = System.nanoTime();
+                if (now - suspendedUntil < 0) {
+                    return true;
+                }
+                probing = true;
+                probeStart = now;
+                resume();
+                summary = takeUnloggedSummary();
+            }
+            PacketEvents.get().getPlugin().getLogger()
+                    .info("PacketEvents is probing the suspended packet listener " + listenerName + " again."
+                            + (summary == null ? "" : summary));
+            return false;
+        }
+
+        /**
+         * Report the exceptions that have not been logged since the previous sample, and reset their amount.
+         *
+         * @return Sentence to append to a log message, null if every exception has been logged.
+         */
+        private synchronized String takeUnloggedSummary() {
+            if (unlogged == 0) {
+                return null;
+            }
+            String summary = " " + unlogged + " more exceptions have not been logged since the previous one.";
+            unlogged = 0;
+            return summary;
+        }
+
+        private synchronized void resume() {
+            if (suspended) {
+                suspended = false;
+                suspendedListeners.decrementAndGet();
+            }
+        }
+
+        private void handle(Throwable throwable) {
+            PacketEventsSettings settings = PacketEvents.get().getSettings();
+            long now = System.nanoTime();
+            String sampleMessage = null;
+            String suspensionMessage = null;
+            synchronized (this) {
+                if (!logged || now - lastLog >= TimeUnit.MILLISECONDS.toNanos(settings.getListenerErrorLogInterval())) {
+                    sampleMessage = "PacketEvents found an exception while calling the packet listener " + listenerName + ".";
+                    String summary = takeUnloggedSummary();
+                    if (summary != null) {
+                        sampleMessage += summary;
+                    }
+                    logged = true;
+                    lastLog = now;
+                } else {
+                    unlogged++;
+                }
+
+                int threshold = settings.getListenerFailureThreshold();
+                if (threshold > 0 && !suspended) {
+                    boolean trip;
+                    if (probing && now - probeStart < WINDOW_NANOS) {
+                        trip = true;
+                    } else {
+                        probing = false;
+                        if (now - windowStart >= WINDOW_NANOS) {
+                            windowStart = now;
+                            windowFailures = 0;
+                        }
+                        trip = ++windowFailures >= threshold;
+                    }
+                    if (trip) {
+                        long suspensionTime = settings.getListenerSuspensionTime();
+                        suspensionMessage = "PacketEvents is suspending the packet listener " + listenerName
+                                + " for " + suspensionTime + " ms, because it failed too often.";
+                        String summary = takeUnloggedSummary();
+                        if (summary != null) {
+                            suspensionMessage += summary;
+                        }
+                        suspendedUntil = now + TimeUnit.MILLISECONDS.toNanos(suspensionTime);
+                        probing = false;
+                        windowFailures = 0;
+                        suspended = true;
+                        suspendedListeners.incrementAndGet();
+                    }
+                }
+            }
+            if (sampleMessage != null) {
+                PacketEvents.get().getPlugin().getLogger().log(Level.SEVERE, sampleMessage, throwable);
+            }
+            if (suspensionMessage != null) {
+                PacketEvents.get().getPlugin().getLogger().warning(suspensionMessage);
+            }
+        }
+    }
+}
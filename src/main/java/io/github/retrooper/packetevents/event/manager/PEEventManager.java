@@ -18,6 +18,10 @@
 
 package io.github.retrooper.packetevents.event.manager;
 
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.eventtypes.NMSPacketEvent;
+import io.github.retrooper.packetevents.event.impl.PacketPlayReceiveBatchEvent;
+
 /**
  * Class storing a static instance of the dynamic and the legacy event manager.
  *
@@ -28,5 +32,75 @@ public class PEEventManager implements EventManager {
 
     public static final EventManagerLegacy EVENT_MANAGER_LEGACY = new EventManagerLegacy();
     public static final EventManagerModern EVENT_MANAGER_MODERN = new EventManagerModern();
+    public static final DispatchTimings DISPATCH_TIMINGS = new DispatchTimings();
+    static final ListenerFaultHandler LISTENER_FAULTS = new ListenerFaultHandler();
+
+    /**
+     * Notify the dynamic event manager and the scoped listeners of every player that the allowance filters of a listener have changed.
+     * The dispatch tables and interest bitmaps are only rebuilt where the listener is registered.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     */
+    public static void refreshListener(PacketListenerAbstract listener) {
+        EVENT_MANAGER_MODERN.refreshListener(listener);
+        PlayerListeners.refreshListener(listener);
+    }
+
+    /**
+     * Call an inbuilt packet event on the dynamic, the legacy and the scoped listeners of a player.
+     * Asynchronous listeners receive the event after all of them.
+     *
+     * @param event           {@link NMSPacketEvent}
+     * @param playerListeners Scoped listeners of the player, null if there are none.
+     */
+    public static void callPacketEvent(NMSPacketEvent event, PlayerListeners playerListeners) {
+        EVENT_MANAGER_MODERN.callEvent(event, playerListeners);
+    }
+
+    /**
+     * Is any dynamic or legacy listener interested in an event of the given type with the given packet ID?
+     * If this returns false, calling the event would not invoke any listener,
+     * so the event does not have to be created at all.
+     *
+     * @param type     Type of the event.
+     * @param packetID Packet ID
+     * @return Would calling the event invoke a listener?
+     */
+    public static boolean hasInterest(PacketEventType type, byte packetID) {
+        return EVENT_MANAGER_MODERN.hasInterest(type, packetID) || EVENT_MANAGER_LEGACY.hasInterest(type);
+    }
+
+    /**
+     * Is any dynamic or legacy listener interested in an incoming or outgoing packet with the given packet ID,
+     * no matter the event type?
+     * If this returns false, the channel handlers pass the packet on without any further processing.
+     *
+     * @param inbound  Incoming packet? Otherwise outgoing packet.
+     * @param packetID Packet ID
+     * @return Would any event of the packet invoke a listener?
+     */
+    public static boolean hasDirectionalInterest(boolean inbound, byte packetID) {
+        return EVENT_MANAGER_MODERN.hasDirectionalInterest(inbound, packetID)
+                || EVENT_MANAGER_LEGACY.hasDirectionalInterest(inbound);
+    }
+
+    /**
+     * Does any dynamic listener receive {@link PacketPlayReceiveBatchEvent}s containing the packet ID?
+     *
+     * @param packetID Packet ID of an incoming PLAY packet.
+     * @return Should the packet be added to the batch of the current read cycle?
+     */
+    public static boolean hasBatchInterest(byte packetID) {
+        return EVENT_MANAGER_MODERN.hasBatchInterest(packetID);
+    }
+
+    /**
+     * Call the {@link PacketPlayReceiveBatchEvent} on the listeners receiving batches.
+     *
+     * @param event {@link PacketPlayReceiveBatchEvent}
+     */
+    public static void callBatchEvent(PacketPlayReceiveBatchEvent event) {
+        EVENT_MANAGER_MODERN.callBatchEvent(event);
+    }
 
 }
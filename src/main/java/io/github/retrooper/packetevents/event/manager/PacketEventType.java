@@ -0,0 +1,290 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.event.PacketEvent;
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.eventtypes.CancellableEvent;
+import io.github.retrooper.packetevents.event.eventtypes.NMSPacketEvent;
+import io.github.retrooper.packetevents.event.impl.*;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.packetwrappers.ReadOnlyNMSPacket;
+import io.github.retrooper.packetevents.utils.packetidset.PacketIdSet;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The inbuilt packet events the {@link EventManagerModern} builds dispatch tables for.
+ * Every type knows which allowance filter of a {@link PacketListenerAbstract} decides whether the listener
+ * wants the event and which listener method to invoke, so that dispatching needs no filter check.
+ * The types are also used to ask the event managers whether anyone is interested in a packet,
+ * see {@link PEEventManager#hasInterest(PacketEventType, byte)}.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public enum PacketEventType {
+    STATUS_RECEIVE(PacketStatusReceiveEvent.class) {
+        @Override
+        PacketIdSet getAllowance(PacketListenerAbstract listener) {
+            return listener.getClientSidedStatusAllowance();
+        }
+
+        @Override
+        void invoke(PacketListenerAbstract listener, PacketEvent event) {
+            listener.onPacketStatusReceive((PacketStatusReceiveEvent) event);
+        }
+
+        @Override
+        NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet) {
+            return new PacketStatusReceiveEvent(event.getChannel(), packet);
+        }
+    },
+    STATUS_SEND(PacketStatusSendEvent.class) {
+        @Override
+        PacketIdSet getAllowance(PacketListenerAbstract listener) {
+            return listener.getServerSidedStatusAllowance();
+        }
+
+        @Override
+        void invoke(PacketListenerAbstract listener, PacketEvent event) {
+            listener.onPacketStatusSend((PacketStatusSendEvent) event);
+        }
+
+        @Override
+        NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet) {
+            return new PacketStatusSendEvent(event.getChannel(), packet);
+        }
+    },
+    HANDSHAKE_RECEIVE(PacketHandshakeReceiveEvent.class) {
+        @Override
+        PacketIdSet getAllowance(PacketListenerAbstract listener) {
+            return listener.getClientSidedHandshakeAllowance();
+        }
+
+        @Override
+        void invoke(PacketListenerAbstract listener, PacketEvent event) {
+            listener.onPacketHandshakeReceive((PacketHandshakeReceiveEvent) event);
+        }
+
+        @Override
+        NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet) {
+            return new PacketHandshakeReceiveEvent(event.getChannel(), packet);
+        }
+    },
+    LOGIN_RECEIVE(PacketLoginReceiveEvent.class) {
+        @Override
+        PacketIdSet getAllowance(PacketListenerAbstract listener) {
+            return listener.getClientSidedLoginAllowance();
+        }
+
+        @Override
+        void invoke(PacketListenerAbstract listener, PacketEvent event) {
+            listener.onPacketLoginReceive((PacketLoginReceiveEvent) event);
+        }
+
+        @Override
+        NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet) {
+            return new PacketLoginReceiveEvent(event.getChannel(), packet);
+        }
+    },
+    LOGIN_SEND(PacketLoginSendEvent.class) {
+        @Override
+        PacketIdSet getAllowance(PacketListenerAbstract listener) {
+            return listener.getServerSidedLoginAllowance();
+        }
+
+        @Override
+        void invoke(PacketListenerAbstract listener, PacketEvent event) {
+            listener.onPacketLoginSend((PacketLoginSendEvent) event);
+        }
+
+        @Override
+        NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet) {
+            return new PacketLoginSendEvent(event.getChannel(), packet);
+        }
+    },
+    PLAY_RECEIVE(PacketPlayReceiveEvent.class) {
+        @Override
+        PacketIdSet getAllowance(PacketListenerAbstract listener) {
+            return listener.getClientSidedPlayAllowance();
+        }
+
+        @Override
+        void invoke(PacketListenerAbstract listener, PacketEvent event) {
+            listener.onPacketPlayReceive((PacketPlayReceiveEvent) event);
+        }
+
+        @Override
+        NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet) {
+            return new PacketPlayReceiveEvent(((PacketPlayReceiveEvent) event).getPlayer(), event.getChannel(), packet);
+        }
+    },
+    PLAY_SEND(PacketPlaySendEvent.class) {
+        @Override
+        PacketIdSet getAllowance(PacketListenerAbstract listener) {
+            return listener.getServerSidedPlayAllowance();
+        }
+
+        @Override
+        void invoke(PacketListenerAbstract listener, PacketEvent event) {
+            listener.onPacketPlaySend((PacketPlaySendEvent) event);
+        }
+
+        @Override
+        NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet) {
+            return new PacketPlaySendEvent(((PacketPlaySendEvent) event).getPlayer(), event.getChannel(), packet);
+        }
+    },
+    POST_PLAY_RECEIVE(PostPacketPlayReceiveEvent.class) {
+        @Override
+        PacketIdSet getAllowance(PacketListenerAbstract listener) {
+            return listener.getClientSidedPlayAllowance();
+        }
+
+        @Override
+        void invoke(PacketListenerAbstract listener, PacketEvent event) {
+            listener.onPostPacketPlayReceive((PostPacketPlayReceiveEvent) event);
+        }
+
+        @Override
+        NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet) {
+            return new PostPacketPlayReceiveEvent(((PostPacketPlayReceiveEvent) event).getPlayer(), event.getChannel(), packet);
+        }
+    },
+    POST_PLAY_SEND(PostPacketPlaySendEvent.class) {
+        @Override
+        PacketIdSet getAllowance(PacketListenerAbstract listener) {
+            return listener.getServerSidedPlayAllowance();
+        }
+
+        @Override
+        void invoke(PacketListenerAbstract listener, PacketEvent event) {
+            listener.onPostPacketPlaySend((PostPacketPlaySendEvent) event);
+        }
+
+        @Override
+        NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet) {
+            return new PostPacketPlaySendEvent(((PostPacketPlaySendEvent) event).getPlayer(), event.getChannel(), packet);
+        }
+    };
+
+    private static final Map<Class<?>, PacketEventType> TYPES = new IdentityHashMap<>();
+
+    static {
+        for (PacketEventType type : values()) {
+            TYPES.put(type.eventClass, type);
+        }
+    }
+
+    private final Class<? extends NMSPacketEvent> eventClass;
+
+    PacketEventType(Class<? extends NMSPacketEvent> eventClass) {
+        this.eventClass = eventClass;
+    }
+
+    /**
+     * Resolve the type of an event.
+     * Custom events and subclasses of the inbuilt events have no type,
+     * they are dispatched by calling {@link PacketEvent#call(PacketListenerAbstract)} on every listener.
+     *
+     * @param event {@link PacketEvent}
+     * @return Type of the event, null if the event has no dispatch table.
+     */
+    static PacketEventType getType(PacketEvent event) {
+        return TYPES.get(event.getClass());
+    }
+
+    Class<? extends NMSPacketEvent> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * Are events of this type fired for incoming packets?
+     *
+     * @return Is the type server-bound?
+     */
+    boolean isInbound() {
+        switch (this) {
+            case STATUS_RECEIVE:
+            case HANDSHAKE_RECEIVE:
+            case LOGIN_RECEIVE:
+            case PLAY_RECEIVE:
+            case POST_PLAY_RECEIVE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Can events of this type be cancelled?
+     *
+     * @return Does the event class implement {@link CancellableEvent}?
+     */
+    boolean isCancellable() {
+        return CancellableEvent.class.isAssignableFrom(eventClass);
+    }
+
+    /**
+     * Does the listener want to receive this type of event with the given packet ID?
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @param packetID Packet ID
+     * @return Should the listener be added to the dispatch table of the packet ID?
+     */
+    boolean isAllowed(PacketListenerAbstract listener, byte packetID) {
+        PacketIdSet allowance = getAllowance(listener);
+        return allowance == null || allowance.contains(packetID);
+    }
+
+    abstract PacketIdSet getAllowance(PacketListenerAbstract listener);
+
+    /**
+     * Create a read-only copy of an event of this type for asynchronous listeners.
+     * The copy references the same NMS packet through its own read-only holder,
+     * so it stays valid when the original event is pooled and reused,
+     * and wrappers created from it cannot modify the packet while minecraft is using it.
+     *
+     * @param event Event of this type.
+     * @return Read-only copy of the event.
+     */
+    NMSPacketEvent copyReadOnly(NMSPacketEvent event) {
+        NMSPacketEvent copy = create(event, new ReadOnlyNMSPacket(event.getNMSPacket().getRawNMSPacket()));
+        copy.assignPacketId(event.getPacketId());
+        copy.setNanoTimestamp(event.getNanoTimestamp());
+        copy.setTimestamp(event.getTimestamp());
+        if (event instanceof CancellableEvent) {
+            ((CancellableEvent) copy).setCancelled(((CancellableEvent) event).isCancelled());
+        }
+        copy.markReadOnly();
+        return copy;
+    }
+
+    abstract NMSPacketEvent create(NMSPacketEvent event, NMSPacket packet);
+
+    /**
+     * Invoke the listener method of this event type without checking any filters.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     * @param event    Event of this type.
+     */
+    abstract void invoke(PacketListenerAbstract listener, PacketEvent event);
+}
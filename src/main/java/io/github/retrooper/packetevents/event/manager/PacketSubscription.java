@@ -0,0 +1,90 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.PacketListenerPriority;
+import io.github.retrooper.packetevents.event.PacketSubscriber;
+import io.github.retrooper.packetevents.event.eventtypes.NMSPacketEvent;
+import io.github.retrooper.packetevents.event.impl.PacketPlayReceiveEvent;
+import io.github.retrooper.packetevents.event.impl.PacketPlaySendEvent;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.packetwrappers.WrappedPacket;
+
+import java.util.function.Function;
+
+/**
+ * Listener registered for a typed packet subscription.
+ * Its allowance filters only accept the subscribed packet ID,
+ * so the dispatch tables route nothing but the subscribed packet to it.
+ * The wrapper is requested from the event, so all subscriptions of the same packet share one wrapper.
+ *
+ * @param <W> Type of the packet wrapper.
+ * @author retrooper
+ * @since 1.8
+ */
+abstract class PacketSubscription<W extends WrappedPacket> extends PacketListenerAbstract {
+    private final Function<NMSPacket, W> wrapperFactory;
+    /**
+     * Class of the wrappers created by the factory, learned from the first created wrapper.
+     */
+    private volatile Class<W> wrapperClass;
+
+    private PacketSubscription(PacketListenerPriority priority, Function<NMSPacket, W> wrapperFactory) {
+        super(priority);
+        this.wrapperFactory = wrapperFactory;
+        filterAll();
+    }
+
+    @SuppressWarnings("unchecked")
+    W getWrapper(NMSPacketEvent event) {
+        W wrapper = event.getWrapper(wrapperClass, wrapperFactory);
+        if (wrapperClass == null) {
+            wrapperClass = (Class<W>) wrapper.getClass();
+        }
+        return wrapper;
+    }
+
+    static <W extends WrappedPacket> PacketSubscription<W> receive(byte packetID, PacketListenerPriority priority,
+                                                                  Function<NMSPacket, W> wrapperFactory,
+                                                                  PacketSubscriber<PacketPlayReceiveEvent, W> subscriber) {
+        PacketSubscription<W> subscription = new PacketSubscription<W>(priority, wrapperFactory) {
+            @Override
+            public void onPacketPlayReceive(PacketPlayReceiveEvent event) {
+                subscriber.onPacket(event, getWrapper(event));
+            }
+        };
+        subscription.addClientSidedPlayFilter(packetID);
+        return subscription;
+    }
+
+    static <W extends WrappedPacket> PacketSubscription<W> send(byte packetID, PacketListenerPriority priority,
+                                                               Function<NMSPacket, W> wrapperFactory,
+                                                               PacketSubscriber<PacketPlaySendEvent, W> subscriber) {
+        PacketSubscription<W> subscription = new PacketSubscription<W>(priority, wrapperFactory) {
+            @Override
+            public void onPacketPlaySend(PacketPlaySendEvent event) {
+                subscriber.onPacket(event, getWrapper(event));
+            }
+        };
+        subscription.addServerSidedPlayFilter(packetID);
+        return subscription;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.eventtypes.CancellableEvent;
+import io.github.retrooper.packetevents.event.eventtypes.NMSPacketEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Packet listeners scoped to the connection of a single player.
+ * Every channel handler of PacketEvents owns one instance, so scoped listeners only cost something
+ * for the packets of their own player, no matter how many players are online.
+ * Scoped listeners are called in priority order together with the global dynamic listeners,
+ * so a global {@link io.github.retrooper.packetevents.event.PacketListenerPriority#MONITOR} listener sees their outcome.
+ * On equal priority, the global listener goes first. Legacy listeners are still called after all of them.
+ * They are dropped together with the channel handler when the player quits.
+ * Scoped listeners do not receive {@link io.github.retrooper.packetevents.event.impl.PacketPlayReceiveBatchEvent}s,
+ * register a global listener filtering by player for batches.
+ *
+ * @author retrooper
+ * @see EventManager#registerPlayerListener(org.bukkit.entity.Player, PacketListenerAbstract)
+ * @since 1.8
+ */
+public final class PlayerListeners {
+    private static final PacketListenerAbstract[] EMPTY_LISTENERS = new PacketListenerAbstract[0];
+    private static final int PACKET_ID_COUNT = 256;
+    private static final int PACKET_ID_OFFSET = 128;
+    private static final int INTEREST_WORDS = PACKET_ID_COUNT / Long.SIZE;
+    /**
+     * Every instance with at least one scoped listener, so that filter changes can be republished.
+     * Weak, because the instances are dropped together with their channel handlers.
+     */
+    private static final Set<PlayerListeners> NON_EMPTY_INSTANCES = Collections.newSetFromMap(new WeakHashMap<>());
+    private final List<PacketListenerAbstract> registeredListeners = new ArrayList<>();
+    private volatile PacketListenerAbstract[] listeners = EMPTY_LISTENERS;
+    /**
+     * Bitmap of the packet IDs a scoped listener accepts, four words per {@link PacketEventType}.
+     * Replaced together with {@link #listeners}, but read separately, so it may briefly be newer or older.
+     */
+    private volatile long[] interest = new long[PacketEventType.values().length * INTEREST_WORDS];
+    /**
+     * Union of the interest bitmaps of every server-bound and every client-bound event type.
+     */
+    private volatile long[][] directionalInterest = new long[2][INTEREST_WORDS];
+
+    synchronized void register(PacketListenerAbstract listener) {
+        if (!registeredListeners.contains(listener)) {
+            registeredListeners.add(listener);
+            //Stable sort, listeners of the same priority keep their registration order.
+            registeredListeners.sort(Comparator.comparingInt(registered -> registered.getPriority().getId()));
+            publish();
+        }
+    }
+
+    synchronized boolean unregister(PacketListenerAbstract listener) {
+        if (registeredListeners.remove(listener)) {
+            PEEventManager.LISTENER_FAULTS.forget(listener);
+            publish();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Unregister all scoped listeners of the player.
+     */
+    public synchronized void unregisterAll() {
+        for (PacketListenerAbstract listener : registeredListeners) {
+            PEEventManager.LISTENER_FAULTS.forget(listener);
+        }
+        registeredListeners.clear();
+        publish();
+    }
+
+    /**
+     * Rebuild the interest bitmaps of every player the listener is scoped to.
+     * The allowance filters of a listener are only read while building them,
+     * so this has to be called when they are modified after the listener has been registered.
+     *
+     * @param listener {@link PacketListenerAbstract}
+     */
+    static void refreshListener(PacketListenerAbstract listener) {
+        PlayerListeners[] instances;
+        synchronized (NON_EMPTY_INSTANCES) {
+            instances = NON_EMPTY_INSTANCES.toArray(new PlayerListeners[0]);
+        }
+        for (PlayerListeners instance : instances) {
+            instance.refresh(listener);
+        }
+    }
+
+    private synchronized void refresh(PacketListenerAbstract listener) {
+        if (registeredListeners.contains(listener)) {
+            publish();
+        }
+    }
+
+    public boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    /**
+     * Does any scoped listener want to receive an event of the given type with the given packet ID?
+     *
+     * @param type     Type of the event.
+     * @param packetID Packet ID
+     * @return Would calling the event invoke a scoped listener?
+     */
+    public boolean hasInterest(PacketEventType type, byte packetID) {
+        int index = packetID + PACKET_ID_OFFSET;
+        return (interest[type.ordinal() * INTEREST_WORDS + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * Does any scoped listener want to receive an event of any type with the given packet ID in the given direction?
+     *
+     * @param inbound  Incoming packet? Otherwise outgoing packet.
+     * @param packetID Packet ID
+     * @return Does the packet have to be processed for a scoped listener?
+     */
+    public boolean hasDirectionalInterest(boolean inbound, byte packetID) {
+        int index = packetID + PACKET_ID_OFFSET;
+        return (directionalInterest[inbound ? 0 : 1][index >>> 6] & (1L << index)) != 0;
+    }
+
+    PacketListenerAbstract[] getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Call an inbuilt packet event on the scoped listeners below a priority.
+     * The event manager merges the scoped listeners into its own walk over the global listeners,
+     * so that every listener runs in priority order.
+     *
+     * @param listeners     Scoped listeners sorted by priority, see {@link #getListeners()}.
+     * @param from          Index of the first listener that has not been called yet.
+     * @param priorityBound Only listeners with a lower priority ID are called.
+     * @param type          Type of the event.
+     * @param event         {@link NMSPacketEvent}
+     * @param packetID      Packet ID of the event.
+     * @return Index of the first listener that has not been called yet.
+     */
+    static int callEvent(PacketListenerAbstract[] listeners, int from, byte priorityBound,
+                         PacketEventType type, NMSPacketEvent event, byte packetID) {
+        CancellableEvent cancellableEvent = event instanceof CancellableEvent ? (CancellableEvent) event : null;
+        int i = from;
+        for (; i < listeners.length; i++) {
+            PacketListenerAbstract listener = listeners[i];
+            if (listener.getPriority().getId() >= priorityBound) {
+                break;
+            }
+            if (!type.isAllowed(listener, packetID)
+                    || (cancellableEvent != null && listener.isIgnoringCancelled() && cancellableEvent.isCancelled())
+                    || PEEventManager.LISTENER_FAULTS.isSuspended(listener)) {
+                continue;
+            }
+            try {
+                type.invoke(listener, event);
+            } catch (Exception ex) {
+                PEEventManager.LISTENER_FAULTS.handle(listener, ex);
+            }
+        }
+        return i;
+    }
+
+    private void publish() {
+        long[] interest = new long[PacketEventType.values().length * INTEREST_WORDS];
+        long[][] directionalInterest = new long[2][INTEREST_WORDS];
+        for (PacketEventType type : PacketEventType.values()) {
+            for (int index = 0; index < PACKET_ID_COUNT; index++) {
+                for (PacketListenerAbstract listener : registeredListeners) {
+                    if (type.isAllowed(listener, (byte) (index - PACKET_ID_OFFSET))) {
+                        interest[type.ordinal() * INTEREST_WORDS + (index >>> 6)] |= 1L << index;
+                        directionalInterest[type.isInbound() ? 0 : 1][index >>> 6] |= 1L << index;
+                        break;
+                    }
+                }
+            }
+        }
+        this.interest = interest;
+        this.directionalInterest = directionalInterest;
+        this.listeners = registeredListeners.toArray(EMPTY_LISTENERS);
+        synchronized (NON_EMPTY_INSTANCES) {
+            if (registeredListeners.isEmpty()) {
+                NON_EMPTY_INSTANCES.remove(this);
+            } else {
+                NON_EMPTY_INSTANCES.add(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.event.manager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of listener dispatch durations in nanoseconds.
+ * Durations are counted in logarithmic buckets, every power of two is split into eight sub buckets,
+ * so percentiles are accurate to 12.5%.
+ * Recording a duration never allocates and never locks.
+ *
+ * @author retrooper
+ * @see DispatchTimings
+ * @since 1.8
+ */
+public final class TimingHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    TimingHistogram() {
+    }
+
+    private static int getBucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return (int) nanos;
+        }
+        int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Record a dispatch duration.
+     *
+     * @param nanos Duration in nanoseconds.
+     */
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(getBucketIndex(nanos));
+        totalNanos.add(nanos);
+        long max;
+        while (nanos > (max = maxNanos.get())) {
+            if (maxNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Amount of recorded listener calls.
+     *
+     * @return Call count.
+     */
+    public long getCount() {
+        //Summed up from the buckets, so recording a call updates one counter less.
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Cumulative time spent in the listener.
+     *
+     * @return Total time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Longest recorded listener call.
+     *
+     * @return Maximum duration in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Duration that the given fraction of the recorded listener calls did not exceed.
+     *
+     * @param percentile Fraction between 0 and 1, for example 0.99 for the 99th percentile.
+     * @return Upper bound of the percentile in nanoseconds, 0 if nothing has been recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 1.");
+        }
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(getBucketUpperBound(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Median listener call duration.
+     *
+     * @return p50 in nanoseconds.
+     */
+    public long getP50Nanos() {
+        return getPercentileNanos(0.5);
+    }
+
+    /**
+     * 99th percentile of the listener call durations.
+     *
+     * @return p99 in nanoseconds.
+     */
+    public long getP99Nanos() {
+        return getPercentileNanos(0.99);
+    }
+}
@@ -18,6 +18,8 @@
 
 package io.github.retrooper.packetevents.injector;
 
+import io.github.retrooper.packetevents.event.manager.PlayerListeners;
+import io.github.retrooper.packetevents.utils.player.PlayerSession;
 import org.bukkit.entity.Player;
 
 public interface ChannelInjector {
@@ -40,4 +42,20 @@ public interface ChannelInjector {
     void flushPackets(Object channel);
 
     void sendPacket(Object channel, Object rawNMSPacket);
+
+    /**
+     * Get the packet listeners scoped to a channel.
+     *
+     * @param channel Netty channel
+     * @return Scoped listeners, null if the channel has not been injected.
+     */
+    PlayerListeners getPlayerListeners(Object channel);
+
+    /**
+     * Get the session of a channel.
+     *
+     * @param channel Netty channel
+     * @return Session, null if the channel has not been injected.
+     */
+    PlayerSession getSession(Object channel);
 }
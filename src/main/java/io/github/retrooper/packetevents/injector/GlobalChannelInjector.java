@@ -21,11 +21,13 @@ package io.github.retrooper.packetevents.injector;
 import io.github.retrooper.packetevents.PacketEvents;
 import io.github.retrooper.packetevents.event.impl.PlayerEjectEvent;
 import io.github.retrooper.packetevents.event.impl.PlayerInjectEvent;
+import io.github.retrooper.packetevents.event.manager.PlayerListeners;
 import io.github.retrooper.packetevents.injector.legacy.early.EarlyChannelInjectorLegacy;
 import io.github.retrooper.packetevents.injector.legacy.late.LateChannelInjectorLegacy;
 import io.github.retrooper.packetevents.injector.modern.early.EarlyChannelInjectorModern;
 import io.github.retrooper.packetevents.injector.modern.late.LateChannelInjectorModern;
 import io.github.retrooper.packetevents.utils.nms.NMSUtils;
+import io.github.retrooper.packetevents.utils.player.PlayerSession;
 import org.bukkit.entity.Player;
 
 public class GlobalChannelInjector {
@@ -95,4 +97,12 @@ public class GlobalChannelInjector {
     public void sendPacket(Object ch, Object rawNMSPacket) {
         injector.sendPacket(ch, rawNMSPacket);
     }
+
+    public PlayerListeners getPlayerListeners(Object ch) {
+        return injector.getPlayerListeners(ch);
+    }
+
+    public PlayerSession getSession(Object ch) {
+        return injector.getSession(ch);
+    }
 }
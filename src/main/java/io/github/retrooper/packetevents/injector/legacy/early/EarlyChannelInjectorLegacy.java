@@ -19,12 +19,14 @@
 package io.github.retrooper.packetevents.injector.legacy.early;
 
 import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.manager.PlayerListeners;
 import io.github.retrooper.packetevents.injector.EarlyInjector;
 import io.github.retrooper.packetevents.injector.legacy.PlayerChannelHandlerLegacy;
 import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
 import io.github.retrooper.packetevents.packetwrappers.WrappedPacket;
 import io.github.retrooper.packetevents.utils.list.ListWrapper;
 import io.github.retrooper.packetevents.utils.nms.NMSUtils;
+import io.github.retrooper.packetevents.utils.player.PlayerSession;
 import io.github.retrooper.packetevents.utils.reflection.ClassUtil;
 import net.minecraft.util.io.netty.channel.Channel;
 import net.minecraft.util.io.netty.channel.ChannelFuture;
@@ -297,6 +299,18 @@ public class EarlyChannelInjectorLegacy implements EarlyInjector {
         channel.writeAndFlush(rawNMSPacket);
     }
 
+    @Override
+    public PlayerListeners getPlayerListeners(Object channel) {
+        PlayerChannelHandlerLegacy handler = getHandler(channel);
+        return handler == null ? null : handler.playerListeners;
+    }
+
+    @Override
+    public PlayerSession getSession(Object channel) {
+        PlayerChannelHandlerLegacy handler = getHandler(channel);
+        return handler == null ? null : handler.session;
+    }
+
     private PlayerChannelHandlerLegacy getHandler(Object rawChannel) {
         Channel channel = (Channel) rawChannel;
         ChannelHandler handler = channel.pipeline().get(PacketEvents.get().getHandlerName());
@@ -312,6 +326,7 @@ public class EarlyChannelInjectorLegacy implements EarlyInjector {
         PlayerChannelHandlerLegacy handler = getHandler(rawChannel);
         if (handler != null) {
             handler.player = player;
+            PacketEvents.get().getPlayerUtils().registerSession(player.getName(), handler.session);
         }
     }
 }
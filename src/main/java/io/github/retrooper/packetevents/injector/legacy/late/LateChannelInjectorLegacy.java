@@ -19,8 +19,10 @@
 package io.github.retrooper.packetevents.injector.legacy.late;
 
 import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.manager.PlayerListeners;
 import io.github.retrooper.packetevents.injector.LateInjector;
 import io.github.retrooper.packetevents.injector.legacy.PlayerChannelHandlerLegacy;
+import io.github.retrooper.packetevents.utils.player.PlayerSession;
 import io.github.retrooper.packetevents.utils.reflection.ClassUtil;
 import net.minecraft.util.io.netty.channel.Channel;
 import org.bukkit.entity.Player;
@@ -42,6 +44,8 @@ public class LateChannelInjectorLegacy implements LateInjector {
         playerChannelHandlerLegacy.player = player;
         Channel channel = (Channel) PacketEvents.get().getPlayerUtils().getChannel(player);
        if (channel != null) {
+           playerChannelHandlerLegacy.session.setChannel(channel);
+           PacketEvents.get().getPlayerUtils().registerSession(player.getName(), playerChannelHandlerLegacy.session);
            channel.eventLoop().execute(() -> {
                channel.pipeline().addBefore("packet_handler", PacketEvents.get().getHandlerName(), playerChannelHandlerLegacy);
            });
@@ -83,4 +87,22 @@ public class LateChannelInjectorLegacy implements LateInjector {
         Channel channel = (Channel) rawChannel;
         channel.pipeline().writeAndFlush(packet);
     }
-}
\ No newline at end of file
+
+    @Override
+    public PlayerListeners getPlayerListeners(Object rawChannel) {
+        Object handler = ((Channel) rawChannel).pipeline().get(PacketEvents.get().getHandlerName());
+        if (handler instanceof PlayerChannelHandlerLegacy) {
+            return ((PlayerChannelHandlerLegacy) handler).playerListeners;
+        }
+        return null;
+    }
+
+    @Override
+    public PlayerSession getSession(Object rawChannel) {
+        Object handler = ((Channel) rawChannel).pipeline().get(PacketEvents.get().getHandlerName());
+        if (handler instanceof PlayerChannelHandlerLegacy) {
+            return ((PlayerChannelHandlerLegacy) handler).session;
+        }
+        return null;
+    }
+}
@@ -19,7 +19,10 @@
 package io.github.retrooper.packetevents.injector.modern;
 
 import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.manager.PlayerListeners;
+import io.github.retrooper.packetevents.processor.PacketBatchCollector;
 import io.github.retrooper.packetevents.processor.PacketProcessorInternal;
+import io.github.retrooper.packetevents.utils.player.PlayerSession;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandler;
@@ -33,16 +36,63 @@ public class PlayerChannelHandlerModern extends ChannelDuplexHandler {
      * This is null until we inject the player.
      */
     public volatile Player player;
+    /**
+     * Packet listeners scoped to this channel.
+     */
+    public final PlayerListeners playerListeners = new PlayerListeners();
+    /**
+     * Data PacketEvents keeps about this connection.
+     */
+    public final PlayerSession session = new PlayerSession();
+    /**
+     * Incoming PLAY packets of the current read cycle.
+     * Only accessed by the event loop of the channel.
+     */
+    private final PacketBatchCollector batchCollector = new PacketBatchCollector();
+    /**
+     * Processing results of the incoming and outgoing packets, reused for every packet of this channel.
+     */
+    private final PacketProcessorInternal.PacketData readData = new PacketProcessorInternal.PacketData();
+    private final PacketProcessorInternal.PacketData writeData = new PacketProcessorInternal.PacketData();
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
+        session.setChannel(ctx.channel());
+        super.handlerAdded(ctx);
+    }
 
     @Override
     public void channelRead(final ChannelHandlerContext ctx, Object packet) throws Exception {
-        PacketProcessorInternal.PacketData data = PacketEvents.get().getInternalPacketProcessor().read(player, ctx.channel(), packet);
-        if (data.packet != null) {
-            super.channelRead(ctx, data.packet);
-            PacketEvents.get().getInternalPacketProcessor().postRead(player, ctx.channel(), data.packet);
+        //Take the receive time before anything else, classifying the packet is not part of the network latency.
+        long receiveNanos = PacketEvents.get().getClock().nanoTime();
+        PacketProcessorInternal processor = PacketEvents.get().getInternalPacketProcessor();
+        PacketProcessorInternal.PacketData data = readData.acquire();
+        try {
+            processor.classify(player, packet, data);
+            if (!processor.isReadObserved(data, playerListeners)) {
+                //Nobody is interested in the packet, pass it on right away.
+                super.channelRead(ctx, packet);
+                return;
+            }
+            if (processor.isReadIntercepted(data, playerListeners)) {
+                processor.read(player, ctx.channel(), data, receiveNanos, playerListeners);
+            }
+            if (data.packet != null) {
+                super.channelRead(ctx, data.packet);
+                processor.postRead(player, ctx.channel(), data, playerListeners);
+                processor.collectBatch(batchCollector, data, receiveNanos);
+            }
+        } finally {
+            data.release();
         }
     }
 
+    @Override
+    public void channelReadComplete(final ChannelHandlerContext ctx) throws Exception {
+        batchCollector.flush(player, ctx.channel());
+        super.channelReadComplete(ctx);
+    }
+
     @Override
     public void write(final ChannelHandlerContext ctx, Object packet, final ChannelPromise promise) throws Exception {
         if (packet instanceof ByteBuf) {
@@ -50,15 +100,30 @@ public class PlayerChannelHandlerModern extends ChannelDuplexHandler {
             super.write(ctx, packet, promise);
             return;
         }
-        PacketProcessorInternal.PacketData data = PacketEvents.get().getInternalPacketProcessor().write(player, ctx.channel(), packet);
-        if (data.postAction != null) {
-            promise.addListener(f -> {
-                data.postAction.run();
-            });
-        }
-        if (data.packet != null) {
-            super.write(ctx, data.packet, promise);
-            PacketEvents.get().getInternalPacketProcessor().postWrite(player, ctx.channel(), data.packet);
+        PacketProcessorInternal processor = PacketEvents.get().getInternalPacketProcessor();
+        PacketProcessorInternal.PacketData data = writeData.acquire();
+        try {
+            processor.classify(player, packet, data);
+            if (!processor.isWriteObserved(data, playerListeners)) {
+                //Nobody is interested in the packet, pass it on right away.
+                super.write(ctx, packet, promise);
+                return;
+            }
+            if (processor.isWriteIntercepted(data, playerListeners)) {
+                processor.write(player, ctx.channel(), data, playerListeners);
+                Runnable postAction = data.postAction;
+                if (postAction != null) {
+                    promise.addListener(f -> {
+                        postAction.run();
+                    });
+                }
+            }
+            if (data.packet != null) {
+                super.write(ctx, data.packet, promise);
+                processor.postWrite(player, ctx.channel(), data, playerListeners);
+            }
+        } finally {
+            data.release();
         }
     }
 }
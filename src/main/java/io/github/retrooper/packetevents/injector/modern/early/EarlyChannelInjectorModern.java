@@ -19,12 +19,14 @@
 package io.github.retrooper.packetevents.injector.modern.early;
 
 import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.manager.PlayerListeners;
 import io.github.retrooper.packetevents.injector.EarlyInjector;
 import io.github.retrooper.packetevents.injector.modern.PlayerChannelHandlerModern;
 import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
 import io.github.retrooper.packetevents.packetwrappers.WrappedPacket;
 import io.github.retrooper.packetevents.utils.list.ListWrapper;
 import io.github.retrooper.packetevents.utils.nms.NMSUtils;
+import io.github.retrooper.packetevents.utils.player.PlayerSession;
 import io.github.retrooper.packetevents.utils.reflection.ClassUtil;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -306,6 +308,18 @@ public class EarlyChannelInjectorModern implements EarlyInjector {
         channel.writeAndFlush(rawNMSPacket);
     }
 
+    @Override
+    public PlayerListeners getPlayerListeners(Object channel) {
+        PlayerChannelHandlerModern handler = getHandler(channel);
+        return handler == null ? null : handler.playerListeners;
+    }
+
+    @Override
+    public PlayerSession getSession(Object channel) {
+        PlayerChannelHandlerModern handler = getHandler(channel);
+        return handler == null ? null : handler.session;
+    }
+
     private PlayerChannelHandlerModern getHandler(Object rawChannel) {
         Channel channel = (Channel) rawChannel;
         ChannelHandler handler = channel.pipeline().get(PacketEvents.get().getHandlerName());
@@ -321,6 +335,7 @@ public class EarlyChannelInjectorModern implements EarlyInjector {
         PlayerChannelHandlerModern handler = getHandler(rawChannel);
         if (handler != null) {
             handler.player = player;
+            PacketEvents.get().getPlayerUtils().registerSession(player.getName(), handler.session);
         }
     }
 }
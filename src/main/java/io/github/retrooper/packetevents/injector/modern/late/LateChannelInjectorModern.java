@@ -19,8 +19,10 @@
 package io.github.retrooper.packetevents.injector.modern.late;
 
 import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.manager.PlayerListeners;
 import io.github.retrooper.packetevents.injector.LateInjector;
 import io.github.retrooper.packetevents.injector.modern.PlayerChannelHandlerModern;
+import io.github.retrooper.packetevents.utils.player.PlayerSession;
 import io.github.retrooper.packetevents.utils.reflection.ClassUtil;
 import io.netty.channel.Channel;
 import org.bukkit.entity.Player;
@@ -42,6 +44,8 @@ public class LateChannelInjectorModern implements LateInjector {
         playerChannelHandlerModern.player = player;
         Channel channel = (Channel) PacketEvents.get().getPlayerUtils().getChannel(player);
         if (channel != null) {
+            playerChannelHandlerModern.session.setChannel(channel);
+            PacketEvents.get().getPlayerUtils().registerSession(player.getName(), playerChannelHandlerModern.session);
             channel.eventLoop().execute(() -> {
                 channel.pipeline().addBefore("packet_handler", PacketEvents.get().getHandlerName(), playerChannelHandlerModern);
             });
@@ -83,4 +87,22 @@ public class LateChannelInjectorModern implements LateInjector {
         Channel channel = (Channel) rawChannel;
         channel.pipeline().writeAndFlush(packet);
     }
-}
\ No newline at end of file
+
+    @Override
+    public PlayerListeners getPlayerListeners(Object rawChannel) {
+        Object handler = ((Channel) rawChannel).pipeline().get(PacketEvents.get().getHandlerName());
+        if (handler instanceof PlayerChannelHandlerModern) {
+            return ((PlayerChannelHandlerModern) handler).playerListeners;
+        }
+        return null;
+    }
+
+    @Override
+    public PlayerSession getSession(Object rawChannel) {
+        Object handler = ((Channel) rawChannel).pipeline().get(PacketEvents.get().getHandlerName());
+        if (handler instanceof PlayerChannelHandlerModern) {
+            return ((PlayerChannelHandlerModern) handler).session;
+        }
+        return null;
+    }
+}
@@ -39,25 +39,38 @@ public class PacketType {
      */
     public static final byte INVALID = -128;
     public static final Map<Class<?>, Byte> packetIDMap = new IdentityHashMap<>();
+    /**
+     * Protocol state of every packet class with a packet ID.
+     * Resolving the state by class identity also works on servers with remapped packet class names.
+     */
+    public static final Map<Class<?>, PacketState> packetStateMap = new IdentityHashMap<>();
     private static final boolean isNine = ServerVersion.getVersion().isNewerThanOrEquals(ServerVersion.v_1_9);
 
+    private static PacketState loadingState;
+
     private static void insertPacketID(Class<?> cls, byte packetID) {
         if (cls != null) {
             packetIDMap.put(cls, packetID);
+            packetStateMap.put(cls, loadingState);
         }
     }
 
     public static void load() {
+        loadingState = PacketState.STATUS;
         Status.Client.load();
         Status.Server.load();
 
+        loadingState = PacketState.HANDSHAKING;
         Handshaking.Client.load();
 
+        loadingState = PacketState.LOGIN;
         Login.Client.load();
         Login.Server.load();
 
+        loadingState = PacketState.PLAY;
         Play.Client.load();
         Play.Server.load();
+        loadingState = null;
     }
 
     /**
@@ -31,7 +31,17 @@ public class NMSPacket {
         return rawNMSPacket;
     }
 
+    /**
+     * May wrappers of this holder modify the NMS packet?
+     *
+     * @return Is the NMS packet read-only?
+     * @see ReadOnlyNMSPacket
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
     public String getName() {
-        return ClassUtil.getClassSimpleName(rawNMSPacket.getClass());
+        return ClassUtil.getClassSimpleName(getRawNMSPacket().getClass());
     }
 }
@@ -0,0 +1,178 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.packetwrappers;
+
+import io.github.retrooper.packetevents.exceptions.WrapperFieldNotFoundException;
+import io.github.retrooper.packetevents.utils.reflection.ClassUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Chain of fields leading from an NMS object to a field of a nested object,
+ * for example from a PlayerChatMessage through its SignedMessageBody and ChatMessageContent to the chat component.
+ * The getters of all steps are composed into one method handle when the chain is built,
+ * so accessing the field through the chain neither creates wrappers nor looks up fields.
+ * Chains are immutable, build them once (for example in {@link WrappedPacket#load()}) and keep them in static fields.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public final class NestedFieldAccessor {
+    private final Class<?> valueClass;
+    private final MethodHandle ownerGetter;
+    private final PacketFieldAccessors.FieldAccessor field;
+    private final MethodHandle getter;
+
+    private NestedFieldAccessor(Class<?> valueClass, MethodHandle ownerGetter,
+                                PacketFieldAccessors.FieldAccessor field, MethodHandle getter) {
+        this.valueClass = valueClass;
+        this.ownerGetter = ownerGetter;
+        this.field = field;
+        this.getter = getter;
+    }
+
+    /**
+     * Start a chain at objects of the given class.
+     *
+     * @param rootClass Class of the objects the chain is applied to.
+     * @return Chain without any steps.
+     */
+    public static NestedFieldAccessor of(Class<?> rootClass) {
+        MethodHandle identity = MethodHandles.identity(Object.class);
+        return new NestedFieldAccessor(rootClass, identity, null, identity);
+    }
+
+    /**
+     * Extend the chain by a field of the current object, selected like {@link WrappedPacket#readObject(int, Class)} does.
+     *
+     * @param type  Exact type of the field.
+     * @param index Index of the field among the fields of that type.
+     * @return Extended chain, this chain is not modified.
+     * @throws WrapperFieldNotFoundException If the field does not exist.
+     */
+    public NestedFieldAccessor then(Class<?> type, int index) throws WrapperFieldNotFoundException {
+        PacketFieldAccessors.FieldAccessor[] accessors = owners().get(type);
+        if (index < 0 || index >= accessors.length) {
+            throw new WrapperFieldNotFoundException(valueClass, type, index);
+        }
+        return then(accessors[index]);
+    }
+
+    /**
+     * Extend the chain by a field of the current object, selected like {@link WrappedPacket#readAnyObject(int)} does.
+     *
+     * @param index Index of the field among all declared fields.
+     * @return Extended chain, this chain is not modified.
+     * @throws WrapperFieldNotFoundException If the field does not exist.
+     */
+    public NestedFieldAccessor thenAny(int index) throws WrapperFieldNotFoundException {
+        PacketFieldAccessors.FieldAccessor[] accessors = owners().bySlot;
+        if (index < 0 || index >= accessors.length) {
+            throw new WrapperFieldNotFoundException("PacketEvents failed to find any field indexed " + index + " in the " + ClassUtil.getClassSimpleName(valueClass) + " class!");
+        }
+        return then(accessors[index]);
+    }
+
+    private PacketFieldAccessors owners() {
+        if (valueClass.isPrimitive()) {
+            throw new IllegalStateException("The chain ends at a " + valueClass.getName() + " field, it cannot be extended!");
+        }
+        return PacketFieldAccessors.of(valueClass);
+    }
+
+    private NestedFieldAccessor then(PacketFieldAccessors.FieldAccessor accessor) {
+        return new NestedFieldAccessor(accessor.field.getType(), getter, accessor,
+                MethodHandles.filterReturnValue(getter, accessor.getter));
+    }
+
+    /**
+     * Read the last field of the chain.
+     *
+     * @param root Object the chain starts at.
+     * @return Value of the field, primitives are boxed.
+     */
+    public Object get(Object root) {
+        try {
+            return getter.invoke(root);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Read the last field of the chain without boxing, it has to be an int field.
+     *
+     * @param root Object the chain starts at.
+     * @return Value of the field.
+     */
+    public int getInt(Object root) {
+        try {
+            return (int) getter.invokeExact(root);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Write the last field of the chain.
+     * The objects on the way to the field are read, not replaced.
+     *
+     * @param root  Object the chain starts at.
+     * @param value New value of the field.
+     */
+    public void set(Object root, Object value) {
+        try {
+            field().setter().invoke((Object) ownerGetter.invokeExact(root), value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Write the last field of the chain without boxing, it has to be an int field.
+     *
+     * @param root  Object the chain starts at.
+     * @param value New value of the field.
+     */
+    public void setInt(Object root, int value) {
+        try {
+            field().setter().invokeExact((Object) ownerGetter.invokeExact(root), value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private PacketFieldAccessors.FieldAccessor field() {
+        if (field == null) {
+            throw new IllegalStateException("The chain has no fields!");
+        }
+        return field;
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.packetwrappers;
+
+import io.github.retrooper.packetevents.exceptions.WrapperFieldNotFoundException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field accessors of a packet class, resolved once per class.
+ * The fields are grouped by their type in declaration order, so that the n-th field of a type is found by an array access.
+ * Primitive fields get typed {@link MethodHandle}s, reading or writing them never boxes the value.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+final class PacketFieldAccessors {
+    private static final ClassValue<PacketFieldAccessors> ACCESSORS = new ClassValue<PacketFieldAccessors>() {
+        @Override
+        protected PacketFieldAccessors computeValue(Class<?> packetClass) {
+            return new PacketFieldAccessors(packetClass);
+        }
+    };
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final FieldAccessor[] EMPTY_ACCESSOR_ARRAY = new FieldAccessor[0];
+    final Field[] declaredFields;
+    /**
+     * Accessors of the declared fields, indexed like {@link #declaredFields}.
+     */
+    final FieldAccessor[] bySlot;
+    final FieldAccessor[] booleans, bytes, shorts, ints, longs, floats, doubles;
+    private final Map<Class<?>, FieldAccessor[]> accessorsByType;
+
+    private PacketFieldAccessors(Class<?> packetClass) {
+        this.declaredFields = packetClass.getDeclaredFields();
+        this.bySlot = new FieldAccessor[declaredFields.length];
+        Map<Class<?>, List<FieldAccessor>> grouped = new IdentityHashMap<>();
+        for (int slot = 0; slot < declaredFields.length; slot++) {
+            Field field = declaredFields[slot];
+            FieldAccessor accessor = new FieldAccessor(field, slot);
+            bySlot[slot] = accessor;
+            grouped.computeIfAbsent(field.getType(), type -> new ArrayList<>()).add(accessor);
+        }
+        Map<Class<?>, FieldAccessor[]> accessorsByType = new IdentityHashMap<>();
+        for (Map.Entry<Class<?>, List<FieldAccessor>> entry : grouped.entrySet()) {
+            accessorsByType.put(entry.getKey(), entry.getValue().toArray(EMPTY_ACCESSOR_ARRAY));
+        }
+        this.accessorsByType = accessorsByType;
+        this.booleans = get(boolean.class);
+        this.bytes = get(byte.class);
+        this.shorts = get(short.class);
+        this.ints = get(int.class);
+        this.longs = get(long.class);
+        this.floats = get(float.class);
+        this.doubles = get(double.class);
+    }
+
+    /**
+     * Get the accessors of a packet class.
+     *
+     * @param packetClass NMS packet class.
+     * @return Accessors of the fields declared by the class.
+     */
+    static PacketFieldAccessors of(Class<?> packetClass) {
+        return ACCESSORS.get(packetClass);
+    }
+
+    /**
+     * Get the accessors of every field with the exact given type.
+     *
+     * @param type Field type.
+     * @return Accessors in declaration order, empty if the class declares no field of the type.
+     */
+    FieldAccessor[] get(Class<?> type) {
+        return accessorsByType.getOrDefault(type, EMPTY_ACCESSOR_ARRAY);
+    }
+
+    /**
+     * Accessor of a single field.
+     * The getter takes the packet as an {@link Object} and returns the exact field type if it is primitive,
+     * otherwise an {@link Object}. The setter takes the packet and a value of the same type.
+     */
+    static final class FieldAccessor {
+        final Field field;
+        /**
+         * Index of the field in the declared fields of its class.
+         */
+        final int slot;
+        final MethodHandle getter;
+        private final MethodHandle boxingGetter;
+        private volatile MethodHandle setter;
+
+        private FieldAccessor(Field field, int slot) {
+            this.field = field;
+            this.slot = slot;
+            Class<?> handleType = field.getType().isPrimitive() ? field.getType() : Object.class;
+            MethodHandle getter;
+            try {
+                if (!field.isAccessible()) {
+                    field.setAccessible(true);
+                }
+                getter = LOOKUP.unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                }
+            } catch (IllegalAccessException | RuntimeException ex) {
+                //The field cannot be accessed, reading it fails like reading a missing field.
+                getter = MethodHandles.dropArguments(MethodHandles.throwException(field.getType(), WrapperFieldNotFoundException.class)
+                        .bindTo(new WrapperFieldNotFoundException("PacketEvents failed to access the field " + field + "!")), 0, Object.class);
+            }
+            this.getter = getter.asType(MethodType.methodType(handleType, Object.class));
+            this.boxingGetter = getter.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        /**
+         * Read the field, primitive values are boxed.
+         *
+         * @param packet NMS packet.
+         * @return Field value.
+         * @throws Throwable If the packet is null or not an instance of the packet class.
+         */
+        Object get(Object packet) throws Throwable {
+            return (Object) boxingGetter.invokeExact(packet);
+        }
+
+        /**
+         * Get the setter of the field, it is resolved on first use.
+         *
+         * @return Setter taking the packet as an {@link Object} and a value of the getter's return type.
+         * @throws IllegalAccessException If the field cannot be written, for example because it is static and final.
+         */
+        MethodHandle setter() throws IllegalAccessException {
+            MethodHandle setter = this.setter;
+            if (setter == null) {
+                setter = LOOKUP.unreflectSetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                }
+                Class<?> valueType = field.getType().isPrimitive() ? field.getType() : Object.class;
+                setter = setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+                this.setter = setter;
+            }
+            return setter;
+        }
+
+        /**
+         * Encode a primitive value of the field's type into the bits {@link WrapperMemo} stores it as.
+         *
+         * @param value Boxed primitive value.
+         * @return Bits of the value.
+         */
+        long encode(Object value) {
+            Class<?> type = field.getType();
+            if (type == boolean.class) {
+                return (Boolean) value ? 1L : 0L;
+            } else if (type == float.class) {
+                return Float.floatToRawIntBits((Float) value);
+            } else if (type == double.class) {
+                return Double.doubleToRawLongBits((Double) value);
+            } else if (type == char.class) {
+                return (Character) value;
+            } else {
+                return ((Number) value).longValue();
+            }
+        }
+
+        /**
+         * Decode the bits of a primitive value of the field's type.
+         *
+         * @param bits Bits of the value.
+         * @return Boxed primitive value.
+         */
+        Object decode(long bits) {
+            Class<?> type = field.getType();
+            if (type == boolean.class) {
+                return bits != 0L;
+            } else if (type == byte.class) {
+                return (byte) bits;
+            } else if (type == short.class) {
+                return (short) bits;
+            } else if (type == char.class) {
+                return (char) bits;
+            } else if (type == int.class) {
+                return (int) bits;
+            } else if (type == float.class) {
+                return Float.intBitsToFloat((int) bits);
+            } else if (type == double.class) {
+                return Double.longBitsToDouble(bits);
+            } else {
+                return bits;
+            }
+        }
+
+        /**
+         * Write the bits of a primitive value to the field without boxing.
+         *
+         * @param packet NMS packet.
+         * @param bits   Bits of the value.
+         * @throws Throwable If the field cannot be written.
+         */
+        void writeBits(Object packet, long bits) throws Throwable {
+            Class<?> type = field.getType();
+            MethodHandle setter = setter();
+            if (type == boolean.class) {
+                setter.invokeExact(packet, bits != 0L);
+            } else if (type == byte.class) {
+                setter.invokeExact(packet, (byte) bits);
+            } else if (type == short.class) {
+                setter.invokeExact(packet, (short) bits);
+            } else if (type == char.class) {
+                setter.invokeExact(packet, (char) bits);
+            } else if (type == int.class) {
+                setter.invokeExact(packet, (int) bits);
+            } else if (type == float.class) {
+                setter.invokeExact(packet, Float.intBitsToFloat((int) bits));
+            } else if (type == double.class) {
+                setter.invokeExact(packet, Double.longBitsToDouble(bits));
+            } else {
+                setter.invokeExact(packet, bits);
+            }
+        }
+    }
+}
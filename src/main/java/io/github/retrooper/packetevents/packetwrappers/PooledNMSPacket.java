@@ -0,0 +1,66 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.packetwrappers;
+
+/**
+ * A reusable {@link NMSPacket} holder owned by a pooled packet event.
+ * The holder is bound to a new NMS packet for every event and released once the event has been processed.
+ * Do NOT keep a reference to it (or to a wrapper created from it) after your listener returned.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public final class PooledNMSPacket extends NMSPacket {
+    private Object rawNMSPacket;
+    private boolean released;
+
+    public PooledNMSPacket() {
+        super(null);
+    }
+
+    @Override
+    public Object getRawNMSPacket() {
+        if (released) {
+            throw new IllegalStateException("A pooled NMSPacket was accessed after its event had been processed. "
+                    + "Do not keep references to pooled events, their NMS packets or wrappers of them.");
+        }
+        return rawNMSPacket;
+    }
+
+    /**
+     * Point the holder at the NMS packet of the next event.
+     *
+     * @param rawNMSPacket NMS Packet.
+     */
+    public void bind(Object rawNMSPacket) {
+        this.rawNMSPacket = rawNMSPacket;
+        this.released = false;
+    }
+
+    /**
+     * Drop the NMS packet reference once the event has been processed.
+     *
+     * @param detectEscape Should accessing the holder from now on throw an exception?
+     */
+    public void release(boolean detectEscape) {
+        this.rawNMSPacket = null;
+        this.released = detectEscape;
+    }
+}
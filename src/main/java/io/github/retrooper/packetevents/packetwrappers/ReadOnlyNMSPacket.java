@@ -0,0 +1,39 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.packetwrappers;
+
+/**
+ * An {@link NMSPacket} holder for a packet that has already been processed and may only be read.
+ * Wrappers of the holder throw an {@link UnsupportedOperationException} when they are written to,
+ * as the NMS packet might be in use by another thread at the same time.
+ * The event copies delivered to asynchronous listeners hold their packets this way.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public final class ReadOnlyNMSPacket extends NMSPacket {
+    public ReadOnlyNMSPacket(Object rawNMSPacket) {
+        super(rawNMSPacket);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -46,22 +46,46 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 
 public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
-    private static final Map<Class<? extends WrappedPacket>, Boolean> LOADED_WRAPPERS = new ConcurrentHashMap<>();
-    private static final Map<Class<?>, Map<Class<?>, Field[]>> FIELD_CACHE = new ConcurrentHashMap<>();
-    private static final Field[] EMPTY_FIELD_ARRAY = new Field[0];
+    private static final ClassValue<LoadState> LOAD_STATES = new ClassValue<LoadState>() {
+        @Override
+        protected LoadState computeValue(Class<?> type) {
+            return new LoadState();
+        }
+    };
+    /**
+     * Packet class the fields of a packet class are read from.
+     * Subclasses of the FLYING and ENTITY packets declare no fields themselves, so their superclass is used.
+     */
+    private static final ClassValue<Class<?>> PACKET_CLASSES = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            Class<?> superclass = type.getSuperclass();
+            if (superclass != null) {
+                if (superclass.equals(PacketTypeClasses.Play.Client.FLYING)) {
+                    return PacketTypeClasses.Play.Client.FLYING;
+                } else if (superclass.equals(PacketTypeClasses.Play.Server.ENTITY)) {
+                    return PacketTypeClasses.Play.Server.ENTITY;
+                }
+            }
+            return type;
+        }
+    };
     private static byte isVersion_1_17 = -1;
+    private static NestedFieldAccessor minecraftKeyNamespace, minecraftKeyKey, dimensionManagerID;
     public static ServerVersion version;
-    protected final NMSPacket packet;
-    private final Class<?> packetClass;
+    protected NMSPacket packet;
+    private Class<?> packetClass;
+    private PacketFieldAccessors accessors;
+    private WrapperMemo memo;
 
     public WrappedPacket() {
         packet = null;
         packetClass = null;
+        accessors = null;
         load0();
     }
 
@@ -70,19 +94,49 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
     }
 
     public WrappedPacket(final NMSPacket packet, Class<?> packetClass) {
-        if (packetClass.getSuperclass().equals(PacketTypeClasses.Play.Client.FLYING)) {
-            packetClass = PacketTypeClasses.Play.Client.FLYING;
-        } else if (packetClass.getSuperclass().equals(PacketTypeClasses.Play.Server.ENTITY)) {
-            packetClass = PacketTypeClasses.Play.Server.ENTITY;
-        }
-        this.packetClass = packetClass;
+        this.packetClass = PACKET_CLASSES.get(packetClass);
         this.packet = packet;
+        this.accessors = PacketFieldAccessors.of(this.packetClass);
         load0();
     }
 
+    /**
+     * Point this wrapper at another packet, so that one wrapper instance can be reused for many packets.
+     * Neither the wrapper nor its field accessors are loaded again and nothing is allocated
+     * as long as the packet has the same class as the previous one.
+     * Buffered writes of a memoizing wrapper are discarded, call {@link #flush()} before rebinding.
+     *
+     * @param packet Packet of the type this wrapper wraps.
+     */
+    public void rebind(NMSPacket packet) {
+        reset();
+        Class<?> packetClass = PACKET_CLASSES.get(packet.getRawNMSPacket().getClass());
+        if (packetClass != this.packetClass) {
+            this.packetClass = packetClass;
+            this.accessors = PacketFieldAccessors.of(packetClass);
+            if (memo != null) {
+                memo = new WrapperMemo(accessors.declaredFields.length);
+            }
+        }
+        this.packet = packet;
+    }
+
+    /**
+     * Unbind this wrapper from its packet and forget every value read from it.
+     * Wrappers caching values of the packet in their own fields override this to clear them.
+     * The wrapper can be pointed at the next packet with {@link #rebind(NMSPacket)}.
+     */
+    public void reset() {
+        packet = null;
+        if (memo != null) {
+            memo.clear();
+        }
+    }
+
     private void load0() {
         final Class<? extends WrappedPacket> clazz = getClass();
-        if (!LOADED_WRAPPERS.containsKey(clazz)) {
+        LoadState state = LOAD_STATES.get(clazz);
+        if (!state.loaded) {
             if (!isSupported()) {
                 throw new WrapperUnsupportedUsageException(getClass());
             }
@@ -92,9 +146,8 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
                 String wrapperName = ClassUtil.getClassSimpleName(clazz);
                 PacketEvents.get().getPlugin().getLogger()
                         .log(Level.SEVERE, "PacketEvents found an exception while loading the " + wrapperName + " packet wrapper. Please report this bug! Tell us about your server version, spigot and code(of you using the wrapper)", ex);
-                LOADED_WRAPPERS.put(clazz, false);
             }
-            LOADED_WRAPPERS.put(clazz, true);
+            state.loaded = true;
         }
     }
 
@@ -102,7 +155,7 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
     }
 
     protected boolean hasLoaded() {
-        return LOADED_WRAPPERS.getOrDefault(getClass(), false);
+        return LOAD_STATES.get(getClass()).loaded;
     }
 
     protected void throwUnsupportedOperation(Enum<?> enumConst) throws UnsupportedOperationException {
@@ -177,37 +230,121 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
 
     @Override
     public boolean readBoolean(int index) {
-        return read(index, boolean.class);
+        try {
+            PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.booleans, boolean.class, index);
+            if (memo == null) {
+                return (boolean) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            } else if (memo.isCached(accessor.slot)) {
+                return memo.getBits(accessor.slot) != 0L;
+            }
+            boolean value = (boolean) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            memo.cacheBits(accessor.slot, value ? 1L : 0L);
+            return value;
+        } catch (Throwable t) {
+            throw fieldNotFound(boolean.class, index, t);
+        }
     }
 
     @Override
     public byte readByte(int index) {
-        return read(index, byte.class);
+        try {
+            PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.bytes, byte.class, index);
+            if (memo == null) {
+                return (byte) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            } else if (memo.isCached(accessor.slot)) {
+                return (byte) memo.getBits(accessor.slot);
+            }
+            byte value = (byte) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            memo.cacheBits(accessor.slot, value);
+            return value;
+        } catch (Throwable t) {
+            throw fieldNotFound(byte.class, index, t);
+        }
     }
 
     @Override
     public short readShort(int index) {
-        return read(index, short.class);
+        try {
+            PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.shorts, short.class, index);
+            if (memo == null) {
+                return (short) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            } else if (memo.isCached(accessor.slot)) {
+                return (short) memo.getBits(accessor.slot);
+            }
+            short value = (short) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            memo.cacheBits(accessor.slot, value);
+            return value;
+        } catch (Throwable t) {
+            throw fieldNotFound(short.class, index, t);
+        }
     }
 
     @Override
     public int readInt(int index) {
-        return read(index, int.class);
+        try {
+            PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.ints, int.class, index);
+            if (memo == null) {
+                return (int) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            } else if (memo.isCached(accessor.slot)) {
+                return (int) memo.getBits(accessor.slot);
+            }
+            int value = (int) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            memo.cacheBits(accessor.slot, value);
+            return value;
+        } catch (Throwable t) {
+            throw fieldNotFound(int.class, index, t);
+        }
     }
 
     @Override
     public long readLong(int index) {
-        return read(index, long.class);
+        try {
+            PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.longs, long.class, index);
+            if (memo == null) {
+                return (long) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            } else if (memo.isCached(accessor.slot)) {
+                return memo.getBits(accessor.slot);
+            }
+            long value = (long) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            memo.cacheBits(accessor.slot, value);
+            return value;
+        } catch (Throwable t) {
+            throw fieldNotFound(long.class, index, t);
+        }
     }
 
     @Override
     public float readFloat(int index) {
-        return read(index, float.class);
+        try {
+            PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.floats, float.class, index);
+            if (memo == null) {
+                return (float) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            } else if (memo.isCached(accessor.slot)) {
+                return Float.intBitsToFloat((int) memo.getBits(accessor.slot));
+            }
+            float value = (float) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            memo.cacheBits(accessor.slot, Float.floatToRawIntBits(value));
+            return value;
+        } catch (Throwable t) {
+            throw fieldNotFound(float.class, index, t);
+        }
     }
 
     @Override
     public double readDouble(int index) {
-        return read(index, double.class);
+        try {
+            PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.doubles, double.class, index);
+            if (memo == null) {
+                return (double) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            } else if (memo.isCached(accessor.slot)) {
+                return Double.longBitsToDouble(memo.getBits(accessor.slot));
+            }
+            double value = (double) accessor.getter.invokeExact(packet.getRawNMSPacket());
+            memo.cacheBits(accessor.slot, Double.doubleToRawLongBits(value));
+            return value;
+        } catch (Throwable t) {
+            throw fieldNotFound(double.class, index, t);
+        }
     }
 
     @Override
@@ -257,19 +394,20 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
 
     @Override
     public Object readAnyObject(int index) {
+        PacketFieldAccessors.FieldAccessor accessor;
         try {
-            Field f = packetClass.getDeclaredFields()[index];
-            if (!f.isAccessible()) {
-                f.setAccessible(true);
-            }
-            try {
-                return f.get(packet.getRawNMSPacket());
-            } catch (IllegalAccessException | NullPointerException | ArrayIndexOutOfBoundsException e) {
-                e.printStackTrace();
-            }
+            accessor = accessors.bySlot[index];
         } catch (ArrayIndexOutOfBoundsException e) {
             throw new WrapperFieldNotFoundException("PacketEvents failed to find any field indexed " + index + " in the " + ClassUtil.getClassSimpleName(packetClass) + " class!");
         }
+        try {
+            return readValue(accessor);
+        } catch (Throwable t) {
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            t.printStackTrace();
+        }
         return null;
     }
 
@@ -286,47 +424,116 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
     @SuppressWarnings("unchecked")
     public <T> T read(int index, Class<? extends T> type) {
         try {
-            Field field = getField(type, index);
-            return (T) field.get(packet.getRawNMSPacket());
-        } catch (IllegalAccessException | NullPointerException | ArrayIndexOutOfBoundsException e) {
-            throw new WrapperFieldNotFoundException(packetClass, type, index);
+            return (T) readValue(getAccessor(accessors.get(type), type, index));
+        } catch (Throwable t) {
+            throw fieldNotFound(type, index, t);
         }
     }
 
 
     @Override
     public void writeBoolean(int index, boolean value) {
-        write(boolean.class, index, value);
+        checkWritable();
+        PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.booleans, boolean.class, index);
+        try {
+            if (memo != null) {
+                memo.writeBits(accessor, value ? 1L : 0L);
+            } else {
+                accessor.setter().invokeExact(packet.getRawNMSPacket(), value);
+            }
+        } catch (Throwable t) {
+            writeFailed(t);
+        }
     }
 
     @Override
     public void writeByte(int index, byte value) {
-        write(byte.class, index, value);
+        checkWritable();
+        PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.bytes, byte.class, index);
+        try {
+            if (memo != null) {
+                memo.writeBits(accessor, value);
+            } else {
+                accessor.setter().invokeExact(packet.getRawNMSPacket(), value);
+            }
+        } catch (Throwable t) {
+            writeFailed(t);
+        }
     }
 
     @Override
     public void writeShort(int index, short value) {
-        write(short.class, index, value);
+        checkWritable();
+        PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.shorts, short.class, index);
+        try {
+            if (memo != null) {
+                memo.writeBits(accessor, value);
+            } else {
+                accessor.setter().invokeExact(packet.getRawNMSPacket(), value);
+            }
+        } catch (Throwable t) {
+            writeFailed(t);
+        }
     }
 
     @Override
     public void writeInt(int index, int value) {
-        write(int.class, index, value);
+        checkWritable();
+        PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.ints, int.class, index);
+        try {
+            if (memo != null) {
+                memo.writeBits(accessor, value);
+            } else {
+                accessor.setter().invokeExact(packet.getRawNMSPacket(), value);
+            }
+        } catch (Throwable t) {
+            writeFailed(t);
+        }
     }
 
     @Override
     public void writeLong(int index, long value) {
-        write(long.class, index, value);
+        checkWritable();
+        PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.longs, long.class, index);
+        try {
+            if (memo != null) {
+                memo.writeBits(accessor, value);
+            } else {
+                accessor.setter().invokeExact(packet.getRawNMSPacket(), value);
+            }
+        } catch (Throwable t) {
+            writeFailed(t);
+        }
     }
 
     @Override
     public void writeFloat(int index, float value) {
-        write(float.class, index, value);
+        checkWritable();
+        PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.floats, float.class, index);
+        try {
+            if (memo != null) {
+                memo.writeBits(accessor, Float.floatToRawIntBits(value));
+            } else {
+                accessor.setter().invokeExact(packet.getRawNMSPacket(), value);
+            }
+        } catch (Throwable t) {
+            writeFailed(t);
+        }
     }
 
     @Override
     public void writeDouble(int index, double value) {
-        write(double.class, index, value);
+        checkWritable();
+        PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.doubles, double.class, index);
+        try {
+            if (memo != null) {
+                memo.writeBits(accessor, Double.doubleToRawLongBits(value));
+            } else {
+                accessor.setter().invokeExact(packet.getRawNMSPacket(), value);
+            }
+        } catch (Throwable t) {
+            writeFailed(t);
+        }
     }
 
     @Override
@@ -381,13 +588,13 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
 
     @Override
     public void writeAnyObject(int index, Object value) {
+        checkWritable();
         try {
-            Field f = packetClass.getDeclaredFields()[index];
-            if (!f.isAccessible()) {
-                f.setAccessible(true);
+            writeValue(accessors.bySlot[index], value);
+        } catch (Throwable t) {
+            if (t instanceof Error) {
+                throw (Error) t;
             }
-            f.set(packet.getRawNMSPacket(), value);
-        } catch (Exception e) {
             throw new WrapperFieldNotFoundException("PacketEvents failed to find any field indexed " + index + " in the " + ClassUtil.getClassSimpleName(packetClass) + " class!");
         }
     }
@@ -402,14 +609,76 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
     }
 
     public void write(Class<?> type, int index, Object value) throws WrapperFieldNotFoundException {
-        Field field = getField(type, index);
-        if (field == null) {
-            throw new WrapperFieldNotFoundException(packetClass, type, index);
-        }
+        checkWritable();
+        PacketFieldAccessors.FieldAccessor accessor = getAccessor(accessors.get(type), type, index);
         try {
-            field.set(packet.getRawNMSPacket(), value);
-        } catch (IllegalAccessException | NullPointerException e) {
-            e.printStackTrace();
+            writeValue(accessor, value);
+        } catch (Throwable t) {
+            writeFailed(t);
+        }
+    }
+
+    /**
+     * Remember every field value this wrapper reads or writes from now on.
+     * Repeated reads of a field are answered without touching the NMS packet again
+     * and writes are buffered until {@link #flush()} writes them to the NMS packet.
+     * Only use this if you make sure {@link #flush()} is called before anyone else reads the NMS packet.
+     */
+    public void memoize() {
+        if (memo == null && accessors != null) {
+            memo = new WrapperMemo(accessors.declaredFields.length);
+        }
+    }
+
+    /**
+     * Does this wrapper remember the field values it reads and writes?
+     *
+     * @return Is the wrapper memoizing?
+     * @see #memoize()
+     */
+    public boolean isMemoizing() {
+        return memo != null;
+    }
+
+    /**
+     * Write every buffered write of a memoizing wrapper to the NMS packet.
+     * Does nothing if the wrapper is not memoizing or nothing was written.
+     */
+    public void flush() {
+        if (memo != null) {
+            try {
+                memo.flush(packet.getRawNMSPacket(), accessors);
+            } catch (Throwable t) {
+                writeFailed(t);
+            }
+        }
+    }
+
+    private Object readValue(PacketFieldAccessors.FieldAccessor accessor) throws Throwable {
+        if (memo == null) {
+            return accessor.get(packet.getRawNMSPacket());
+        }
+        int slot = accessor.slot;
+        boolean primitive = accessor.field.getType().isPrimitive();
+        if (memo.isCached(slot)) {
+            return primitive ? accessor.decode(memo.getBits(slot)) : memo.getValue(slot);
+        }
+        Object value = accessor.get(packet.getRawNMSPacket());
+        if (primitive) {
+            memo.cacheBits(slot, accessor.encode(value));
+        } else {
+            memo.cacheValue(slot, value);
+        }
+        return value;
+    }
+
+    private void writeValue(PacketFieldAccessors.FieldAccessor accessor, Object value) throws Throwable {
+        if (memo == null) {
+            accessor.setter().invoke(packet.getRawNMSPacket(), value);
+        } else if (accessor.field.getType().isPrimitive()) {
+            memo.writeBits(accessor, accessor.encode(value));
+        } else {
+            memo.writeValue(accessor, value);
         }
     }
 
@@ -476,8 +745,7 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
             dimensionID = readInt(dimensionIDLegacyIndex);
         } else {
             Object dimensionManagerObject = readObject(index, NMSUtils.dimensionManagerClass);
-            WrappedPacket dimensionManagerWrapper = new WrappedPacket(new NMSPacket(dimensionManagerObject));
-            dimensionID = dimensionManagerWrapper.readInt(0) - 1;
+            dimensionID = getDimensionManagerID().getInt(dimensionManagerObject) - 1;
         }
         return Dimension.getById(dimensionID);
     }
@@ -486,9 +754,9 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
         if (version.isOlderThan(ServerVersion.v_1_13_2)) {
             writeInt(dimensionIDLegacyIndex, dimension.getId());
         } else {
+            checkWritable();
             Object dimensionManagerObject = readObject(index, NMSUtils.dimensionManagerClass);
-            WrappedPacket dimensionManagerWrapper = new WrappedPacket(new NMSPacket(dimensionManagerObject));
-            dimensionManagerWrapper.writeInt(0, dimension.getId() + 1);
+            getDimensionManagerID().setInt(dimensionManagerObject, dimension.getId() + 1);
         }
     }
 
@@ -514,14 +782,18 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
     }
 
     public String readMinecraftKey(int index) {
-        if (isVersion_1_17 == -1) {
-            isVersion_1_17 = (byte) (version.isNewerThanOrEquals(ServerVersion.v_1_17) ? 1 : 0);
+        NestedFieldAccessor namespace = minecraftKeyNamespace, key = minecraftKeyKey;
+        if (namespace == null || key == null) {
+            if (isVersion_1_17 == -1) {
+                isVersion_1_17 = (byte) (version.isNewerThanOrEquals(ServerVersion.v_1_17) ? 1 : 0);
+            }
+            int namespaceIndex = isVersion_1_17 == 1 ? 2 : 0;
+            int keyIndex = isVersion_1_17 == 1 ? 3 : 1;
+            minecraftKeyNamespace = namespace = NestedFieldAccessor.of(NMSUtils.minecraftKeyClass).then(String.class, namespaceIndex);
+            minecraftKeyKey = key = NestedFieldAccessor.of(NMSUtils.minecraftKeyClass).then(String.class, keyIndex);
         }
-        int namespaceIndex = isVersion_1_17 == 1 ? 2 : 0;
-        int keyIndex = isVersion_1_17 == 1 ? 3 : 1;
         Object minecraftKey = readObject(index, NMSUtils.minecraftKeyClass);
-        WrappedPacket minecraftKeyWrapper = new WrappedPacket(new NMSPacket(minecraftKey));
-        return minecraftKeyWrapper.readString(namespaceIndex) + ":" + minecraftKeyWrapper.readString(keyIndex);
+        return namespace.get(minecraftKey) + ":" + key.get(minecraftKey);
     }
 
     public void writeMinecraftKey(int index, String content) {
@@ -570,29 +842,52 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
         write(NMSUtils.mojangEitherClass, index, either);
     }
 
-    private Field getField(Class<?> type, int index) {
-        Map<Class<?>, Field[]> cached = FIELD_CACHE.computeIfAbsent(packetClass, k -> new ConcurrentHashMap<>());
-        Field[] fields = cached.computeIfAbsent(type, typeClass -> getFields(typeClass, packetClass.getDeclaredFields()));
-        if (fields.length >= index + 1) {
-            return fields[index];
+    /**
+     * Make sure the packet of this wrapper may be modified.
+     * Wrappers modifying objects nested in the packet call this before doing so.
+     *
+     * @throws UnsupportedOperationException If the packet is read-only.
+     * @see NMSPacket#isReadOnly()
+     */
+    protected final void checkWritable() {
+        if (packet != null && packet.isReadOnly()) {
+            throw new UnsupportedOperationException("The " + ClassUtil.getClassSimpleName(packetClass)
+                    + " has already been processed, it cannot be modified.");
+        }
+    }
+
+    private static NestedFieldAccessor getDimensionManagerID() {
+        if (dimensionManagerID == null) {
+            dimensionManagerID = NestedFieldAccessor.of(NMSUtils.dimensionManagerClass).then(int.class, 0);
+        }
+        return dimensionManagerID;
+    }
+
+    private PacketFieldAccessors.FieldAccessor getAccessor(PacketFieldAccessors.FieldAccessor[] accessors, Class<?> type, int index) {
+        if (index >= 0 && index < accessors.length) {
+            return accessors[index];
         } else {
             throw new WrapperFieldNotFoundException(packetClass, type, index);
         }
     }
 
-    private Field[] getFields(Class<?> type, Field[] fields) {
-        List<Field> ret = new ArrayList<>();
-        for (Field field : fields) {
-            if (field.getType().equals(type)) {
-                if (!field.isAccessible()) {
-                    field.setAccessible(true);
-                }
-                ret.add(field);
-            }
+    private WrapperFieldNotFoundException fieldNotFound(Class<?> type, int index, Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        } else if (cause instanceof WrapperFieldNotFoundException) {
+            return (WrapperFieldNotFoundException) cause;
         }
-        return ret.toArray(EMPTY_FIELD_ARRAY);
+        return new WrapperFieldNotFoundException(packetClass, type, index);
     }
 
+    private void writeFailed(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        } else if (cause instanceof RuntimeException && !(cause instanceof NullPointerException)) {
+            throw (RuntimeException) cause;
+        }
+        cause.printStackTrace();
+    }
 
     /**
      * Does the local server version support reading at-least one field with this packet wrapper?
@@ -618,4 +913,8 @@ public class WrappedPacket implements WrapperPacketReader, WrapperPacketWriter {
     public @interface SupportedVersions {
         ServerVersion[] ranges() default {};
     }
+
+    private static final class LoadState {
+        private volatile boolean loaded;
+    }
 }
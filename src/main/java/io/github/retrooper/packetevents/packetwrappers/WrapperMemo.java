@@ -0,0 +1,152 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.packetwrappers;
+
+/**
+ * Field values a memoizing {@link WrappedPacket} has read or written, indexed by the slot of the field.
+ * Primitive values are stored as bits so that they are never boxed.
+ * Written values are marked dirty until they are flushed to the NMS packet.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+final class WrapperMemo {
+    private final long[] bits;
+    /**
+     * Values of the reference fields, only created once the first one is cached.
+     */
+    private Object[] values;
+    private final long[] cached;
+    private final long[] dirty;
+    private boolean anyDirty;
+
+    WrapperMemo(int slots) {
+        this.bits = new long[slots];
+        this.cached = new long[(slots + 63) >>> 6];
+        this.dirty = new long[cached.length];
+    }
+
+    boolean isCached(int slot) {
+        return (cached[slot >>> 6] & (1L << slot)) != 0L;
+    }
+
+    long getBits(int slot) {
+        return bits[slot];
+    }
+
+    Object getValue(int slot) {
+        return values[slot];
+    }
+
+    void cacheBits(int slot, long value) {
+        bits[slot] = value;
+        cached[slot >>> 6] |= 1L << slot;
+    }
+
+    void cacheValue(int slot, Object value) {
+        if (values == null) {
+            values = new Object[bits.length];
+        }
+        values[slot] = value;
+        cached[slot >>> 6] |= 1L << slot;
+    }
+
+    /**
+     * Buffer a write of a primitive field.
+     * The setter is resolved right away, so that a field that cannot be written fails at the write
+     * of the listener responsible for it, not once the memo is flushed.
+     *
+     * @param accessor Accessor of the field.
+     * @param value    Bits of the value.
+     * @throws IllegalAccessException If the field cannot be written.
+     */
+    void writeBits(PacketFieldAccessors.FieldAccessor accessor, long value) throws IllegalAccessException {
+        accessor.setter();
+        cacheBits(accessor.slot, value);
+        markDirty(accessor.slot);
+    }
+
+    /**
+     * Buffer a write of a reference field.
+     * The setter is resolved and the value type checked right away, like {@link #writeBits(PacketFieldAccessors.FieldAccessor, long)}.
+     *
+     * @param accessor Accessor of the field.
+     * @param value    Value.
+     * @throws IllegalAccessException If the field cannot be written.
+     * @throws ClassCastException     If the value cannot be assigned to the field.
+     */
+    void writeValue(PacketFieldAccessors.FieldAccessor accessor, Object value) throws IllegalAccessException {
+        accessor.setter();
+        if (value != null && !accessor.field.getType().isInstance(value)) {
+            throw new ClassCastException("Cannot write a " + value.getClass().getName() + " to " + accessor.field + ".");
+        }
+        cacheValue(accessor.slot, value);
+        markDirty(accessor.slot);
+    }
+
+    private void markDirty(int slot) {
+        dirty[slot >>> 6] |= 1L << slot;
+        anyDirty = true;
+    }
+
+    /**
+     * Write every dirty value to the NMS packet in one pass.
+     *
+     * @param packet    NMS packet.
+     * @param accessors Accessors of the packet class.
+     * @throws Throwable If a field cannot be written.
+     */
+    void flush(Object packet, PacketFieldAccessors accessors) throws Throwable {
+        if (!anyDirty) {
+            return;
+        }
+        for (int word = 0; word < dirty.length; word++) {
+            long mask = dirty[word];
+            while (mask != 0L) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                PacketFieldAccessors.FieldAccessor accessor = accessors.bySlot[slot];
+                if (accessor.field.getType().isPrimitive()) {
+                    accessor.writeBits(packet, bits[slot]);
+                } else {
+                    accessor.setter().invoke(packet, values[slot]);
+                }
+            }
+            dirty[word] = 0L;
+        }
+        anyDirty = false;
+    }
+
+    /**
+     * Forget every value, for example because the wrapper wraps another packet now.
+     */
+    void clear() {
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = null;
+            }
+        }
+        for (int i = 0; i < cached.length; i++) {
+            cached[i] = 0L;
+            dirty[i] = 0L;
+        }
+        anyDirty = false;
+    }
+}
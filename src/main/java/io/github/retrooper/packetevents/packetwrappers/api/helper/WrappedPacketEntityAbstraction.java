@@ -88,4 +88,11 @@ public abstract class WrappedPacketEntityAbstraction extends WrappedPacket {
         setEntityId(entity.getEntityId());
         this.entity = entity;
     }
+
+    @Override
+    public void reset() {
+        super.reset();
+        entity = null;
+        entityID = -1;
+    }
 }
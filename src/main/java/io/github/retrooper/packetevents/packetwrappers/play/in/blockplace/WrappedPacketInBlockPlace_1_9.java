@@ -85,4 +85,10 @@ final class WrappedPacketInBlockPlace_1_9 extends WrappedPacket {
             movingObjectPosWrapper.writeEnumConstant(0, enumConst);
         }
     }
+
+    @Override
+    public void reset() {
+        super.reset();
+        movingObjPos = null;
+    }
 }
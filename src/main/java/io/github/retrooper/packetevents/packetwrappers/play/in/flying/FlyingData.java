@@ -0,0 +1,73 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.packetwrappers.play.in.flying;
+
+import io.github.retrooper.packetevents.utils.vector.Vector3d;
+
+/**
+ * Mutable holder of every field of a FLYING packet.
+ * Reuse one instance to decode many packets without allocating,
+ * see {@link WrappedPacketInFlying#readAll(FlyingData)} and {@link WrappedPacketInFlying#writeAll(FlyingData)}.
+ * Fields the concrete packet does not send (for example the position of a LOOK packet) are zero,
+ * check {@link #moving} and {@link #rotating} before using them.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public class FlyingData {
+    public double x;
+    public double y;
+    public double z;
+    public float yaw;
+    public float pitch;
+    public boolean onGround;
+    /**
+     * Does the packet contain a position?
+     */
+    public boolean moving;
+    /**
+     * Does the packet contain a rotation?
+     */
+    public boolean rotating;
+
+    /**
+     * Copy the position into a vector.
+     *
+     * @param position Vector to copy the position into.
+     * @return The given vector.
+     */
+    public Vector3d getPosition(Vector3d position) {
+        position.x = x;
+        position.y = y;
+        position.z = z;
+        return position;
+    }
+
+    /**
+     * Set the position from a vector.
+     *
+     * @param position Position
+     */
+    public void setPosition(Vector3d position) {
+        x = position.x;
+        y = position.y;
+        z = position.z;
+    }
+}
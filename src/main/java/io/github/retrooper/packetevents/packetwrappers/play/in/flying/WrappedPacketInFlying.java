@@ -108,6 +108,56 @@ public class WrappedPacketInFlying extends WrappedPacket {
         writeDouble(2, position.z);
     }
 
+    /**
+     * Copy the position into a vector instead of allocating a new one.
+     *
+     * @param position Vector to copy the position into.
+     * @return The given vector.
+     */
+    public Vector3d getPosition(Vector3d position) {
+        position.x = readDouble(0);
+        position.y = readDouble(1);
+        position.z = readDouble(2);
+        return position;
+    }
+
+    /**
+     * Read every field of the packet in one call.
+     * The POSITION, LOOK, POSITION_LOOK and plain FLYING packets all declare their fields in the FLYING superclass,
+     * so the same field layout applies to all of them.
+     *
+     * @param data Holder to read the fields into, it can be reused for every packet.
+     * @return The given holder.
+     */
+    public FlyingData readAll(FlyingData data) {
+        data.x = readDouble(0);
+        data.y = readDouble(1);
+        data.z = readDouble(2);
+        data.yaw = readFloat(0);
+        data.pitch = readFloat(1);
+        data.onGround = readBoolean(0);
+        data.moving = readBoolean(1);
+        data.rotating = readBoolean(2);
+        return data;
+    }
+
+    /**
+     * Write every field of the packet in one call.
+     * {@link FlyingData#moving} and {@link FlyingData#rotating} decide whether the server applies the position and rotation.
+     *
+     * @param data Values to write.
+     */
+    public void writeAll(FlyingData data) {
+        writeDouble(0, data.x);
+        writeDouble(1, data.y);
+        writeDouble(2, data.z);
+        writeFloat(0, data.yaw);
+        writeFloat(1, data.pitch);
+        writeBoolean(0, data.onGround);
+        writeBoolean(1, data.moving);
+        writeBoolean(2, data.rotating);
+    }
+
     public float getYaw() {
         return readFloat(0);
     }
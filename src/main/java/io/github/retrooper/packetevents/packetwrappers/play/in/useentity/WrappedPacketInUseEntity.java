@@ -196,6 +196,13 @@ public final class WrappedPacketInUseEntity extends WrappedPacketEntityAbstracti
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        action = null;
+        obfuscatedDataObj = null;
+    }
+
     public enum EntityUseAction {
         INTERACT, ATTACK, INTERACT_AT
     }
@@ -20,6 +20,7 @@ package io.github.retrooper.packetevents.packetwrappers.play.out.chat;
 
 import io.github.retrooper.packetevents.packettype.PacketTypeClasses;
 import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.packetwrappers.NestedFieldAccessor;
 import io.github.retrooper.packetevents.packetwrappers.WrappedPacket;
 import io.github.retrooper.packetevents.packetwrappers.api.SendableWrapper;
 import io.github.retrooper.packetevents.utils.enums.EnumUtil;
@@ -44,6 +45,7 @@ public final class WrappedPacketOutChat extends WrappedPacket implements Sendabl
     //1 = IChatBaseComponent, Int
     //2 = IChatBaseComponent, ChatMessageType
     //3 = IChatBaseComponent, ChatMessageType, UUID
+    private static NestedFieldAccessor MESSAGE_COMPONENT, UNSIGNED_MESSAGE, CHAT_TYPE_ID;
     private static byte constructorMode;
     private String message;
     private ChatPosition chatPosition;
@@ -81,6 +83,12 @@ public final class WrappedPacketOutChat extends WrappedPacket implements Sendabl
                 CHAT_MESSAGE_CONTENT_CLASS = NMSUtils.getNMClassWithoutException("network.chat.ChatMessageContent");
                 CHAT_MESSAGE_TYPE_CLASS = NMSUtils.getNMClassWithoutException("network.chat.ChatMessageType");
                 NETWORK_BOUND_CHAT_TYPE_CLASS = SubclassUtil.getSubClass(CHAT_MESSAGE_TYPE_CLASS, 1);
+                MESSAGE_COMPONENT = NestedFieldAccessor.of(PLAYER_CHAT_MESSAGE_CLASS)
+                        .then(SIGNED_MESSAGE_BODY_CLASS, 0)
+                        .then(CHAT_MESSAGE_CONTENT_CLASS, 0)
+                        .then(NMSUtils.iChatBaseComponentClass, 0);
+                UNSIGNED_MESSAGE = NestedFieldAccessor.of(PLAYER_CHAT_MESSAGE_CLASS).then(Optional.class, 0);
+                CHAT_TYPE_ID = NestedFieldAccessor.of(NETWORK_BOUND_CHAT_TYPE_CLASS).then(int.class, 0);
             }
             //Cause we read getChatPosition using constructor mode
             constructorMode = 4;
@@ -164,12 +172,7 @@ public final class WrappedPacketOutChat extends WrappedPacket implements Sendabl
         if (packet != null) {
             if (version.isNewerThanOrEquals(ServerVersion.v_1_19_1)) {
                 Object playerChatMessage = readObject(0, PLAYER_CHAT_MESSAGE_CLASS);
-                WrappedPacket playerChatMessageWrapper = new WrappedPacket(new NMSPacket(playerChatMessage));
-                Object signedMessageBody = playerChatMessageWrapper.readObject(0, SIGNED_MESSAGE_BODY_CLASS);
-                WrappedPacket wrappedSignedMessageBody = new WrappedPacket(new NMSPacket(signedMessageBody));
-                Object chatMessageContent = wrappedSignedMessageBody.readObject(0, CHAT_MESSAGE_CONTENT_CLASS);
-                WrappedPacket wrappedChatMessage = new WrappedPacket(new NMSPacket(chatMessageContent));
-                return wrappedChatMessage.readIChatBaseComponent(0);
+                return NMSUtils.readIChatBaseComponent(MESSAGE_COMPONENT.get(playerChatMessage));
             }
             return readIChatBaseComponent(0);
         } else {
@@ -180,13 +183,9 @@ public final class WrappedPacketOutChat extends WrappedPacket implements Sendabl
     public void setMessage(String message) {
         if (packet != null) {
             if (version.isNewerThanOrEquals(ServerVersion.v_1_19_1)) {
+                checkWritable();
                 Object playerChatMessage = readObject(0, PLAYER_CHAT_MESSAGE_CLASS);
-                WrappedPacket playerChatMessageWrapper = new WrappedPacket(new NMSPacket(playerChatMessage));
-                Object signedMessageBody = playerChatMessageWrapper.readObject(0, SIGNED_MESSAGE_BODY_CLASS);
-                WrappedPacket wrappedSignedMessageBody = new WrappedPacket(new NMSPacket(signedMessageBody));
-                Object chatMessageContent = wrappedSignedMessageBody.readObject(0, CHAT_MESSAGE_CONTENT_CLASS);
-                WrappedPacket wrappedChatMessage = new WrappedPacket(new NMSPacket(chatMessageContent));
-                wrappedChatMessage.writeIChatBaseComponent(0, message);
+                MESSAGE_COMPONENT.set(playerChatMessage, NMSUtils.generateIChatBaseComponent(message));
                 return;
             }
             writeIChatBaseComponent(0, message);
@@ -198,8 +197,7 @@ public final class WrappedPacketOutChat extends WrappedPacket implements Sendabl
     public Optional<String> getUnsignedMessage() {
         if (version.isNewerThanOrEquals(ServerVersion.v_1_19_1)) {
             Object playerChatMessage = readObject(0, PLAYER_CHAT_MESSAGE_CLASS);
-            WrappedPacket playerChatMessageWrapper = new WrappedPacket(new NMSPacket(playerChatMessage));
-            Optional<?> opt = playerChatMessageWrapper.readObject(0, Optional.class);
+            Optional<?> opt = (Optional<?>) UNSIGNED_MESSAGE.get(playerChatMessage);
             if (opt.isPresent()) {
                 Object iChatBaseComponent = opt.get();
                 return Optional.ofNullable(NMSUtils.readIChatBaseComponent(iChatBaseComponent));
@@ -217,10 +215,10 @@ public final class WrappedPacketOutChat extends WrappedPacket implements Sendabl
 
     public void setUnsignedMessage(String unsignedMessage) {
         if (version.isNewerThanOrEquals(ServerVersion.v_1_19_1)) {
+            checkWritable();
             Object playerChatMessage = readObject(0, PLAYER_CHAT_MESSAGE_CLASS);
-            WrappedPacket playerChatMessageWrapper = new WrappedPacket(new NMSPacket(playerChatMessage));
             Object iChatBaseComponent = NMSUtils.generateIChatBaseComponent(unsignedMessage);
-           playerChatMessageWrapper.write(Optional.class, 0, Optional.ofNullable(iChatBaseComponent));
+            UNSIGNED_MESSAGE.set(playerChatMessage, Optional.ofNullable(iChatBaseComponent));
         }
         else if (version.isNewerThanOrEquals(ServerVersion.v_1_19)) {
             Object iChatBaseComponent = NMSUtils.generateIChatBaseComponent(unsignedMessage);
@@ -255,8 +253,7 @@ public final class WrappedPacketOutChat extends WrappedPacket implements Sendabl
                     return ChatPosition.values()[chatTypeEnumInstance.ordinal()];
                 case 4:
                     Object chatMsgType = readObject(0, NETWORK_BOUND_CHAT_TYPE_CLASS);
-                    WrappedPacket chatMsgTypeWrapper = new WrappedPacket(new NMSPacket(chatMsgType));
-                    chatPositionValue = (byte) chatMsgTypeWrapper.readInt(0);
+                    chatPositionValue = (byte) CHAT_TYPE_ID.getInt(chatMsgType);
                     break;
                 default:
                     chatPositionValue = 0;
@@ -284,9 +281,9 @@ public final class WrappedPacketOutChat extends WrappedPacket implements Sendabl
                     writeEnumConstant(0, chatTypeEnumInstance);
                     break;
                 case 4:
+                    checkWritable();
                     Object chatMsgType = readObject(0, NETWORK_BOUND_CHAT_TYPE_CLASS);
-                    WrappedPacket chatMsgTypeWrapper = new WrappedPacket(new NMSPacket(chatMsgType));
-                    chatMsgTypeWrapper.writeInt(0, chatPosition.getId(version));
+                    CHAT_TYPE_ID.setInt(chatMsgType, chatPosition.getId(version));
                     break;
             }
         } else {
@@ -19,6 +19,7 @@
 package io.github.retrooper.packetevents.packetwrappers.play.out.entitymetadata;
 
 import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.packetwrappers.NestedFieldAccessor;
 import io.github.retrooper.packetevents.packetwrappers.WrappedPacket;
 import io.github.retrooper.packetevents.utils.google.OptionalUtils;
 import io.github.retrooper.packetevents.utils.nms.NMSUtils;
@@ -31,6 +32,7 @@ import io.github.retrooper.packetevents.utils.server.ServerVersion;
 public class WrappedWatchableObject extends WrappedPacket {
     private static int valueIndex = 2;
     private static Class<?> googleOptionalClass;
+    private static NestedFieldAccessor dataWatcherObjectIndex;
 
     public WrappedWatchableObject(NMSPacket packet) {
         super(packet);
@@ -51,8 +53,7 @@ public class WrappedWatchableObject extends WrappedPacket {
     public int getIndex() {
         if (version.isNewerThan(ServerVersion.v_1_8_8)) {
             Object dataWatcherObject = readAnyObject(0);
-            WrappedPacket wrappedDataWatcher = new WrappedPacket(new NMSPacket(dataWatcherObject));
-            return wrappedDataWatcher.readInt(0);
+            return getDataWatcherObjectIndex(dataWatcherObject).getInt(dataWatcherObject);
         } else {
             return readInt(0);
         }
@@ -61,8 +62,7 @@ public class WrappedWatchableObject extends WrappedPacket {
     public void setIndex(int index) {
         if (version.isNewerThan(ServerVersion.v_1_8_8)) {
             Object dataWatcherObject = readAnyObject(0);
-            WrappedPacket wrappedDataWatcher = new WrappedPacket(new NMSPacket(dataWatcherObject));
-            wrappedDataWatcher.writeInt(0, index);
+            getDataWatcherObjectIndex(dataWatcherObject).setInt(dataWatcherObject, index);
         } else {
             writeInt(0, index);
         }
@@ -105,4 +105,11 @@ public class WrappedWatchableObject extends WrappedPacket {
     protected void setValue(Object value) {
 
     }
+
+    private static NestedFieldAccessor getDataWatcherObjectIndex(Object dataWatcherObject) {
+        if (dataWatcherObjectIndex == null) {
+            dataWatcherObjectIndex = NestedFieldAccessor.of(dataWatcherObject.getClass()).then(int.class, 0);
+        }
+        return dataWatcherObjectIndex;
+    }
 }
@@ -187,4 +187,10 @@ public class WrappedPacketOutMapChunk extends WrappedPacket {
             writeByteArray(0, data);
         }
     }
+
+    @Override
+    public void reset() {
+        super.reset();
+        nmsChunkMap = null;
+    }
 }
@@ -20,7 +20,9 @@ package io.github.retrooper.packetevents.processor;
 
 import io.github.retrooper.packetevents.PacketEvents;
 import io.github.retrooper.packetevents.event.impl.PostPlayerInjectEvent;
+import io.github.retrooper.packetevents.event.manager.PlayerListeners;
 import io.github.retrooper.packetevents.utils.player.ClientVersion;
+import io.github.retrooper.packetevents.utils.player.PlayerSession;
 import io.github.retrooper.packetevents.utils.versionlookup.VersionLookupUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Entity;
@@ -37,9 +39,6 @@ import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.spigotmc.AsyncCatcher;
 
-import java.net.InetSocketAddress;
-import java.util.UUID;
-
 public class BukkitEventProcessorInternal implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void onLogin(PlayerLoginEvent e) {
@@ -52,7 +51,6 @@ public class BukkitEventProcessorInternal implements Listener {
     @EventHandler(priority = EventPriority.HIGH)
     public void onJoin(PlayerJoinEvent e) {
         Player player = e.getPlayer();
-        InetSocketAddress address = player.getAddress();
         boolean shouldInject = PacketEvents.get().getSettings().shouldUseCompatibilityInjector() || !(PacketEvents.get().getInjector().hasInjected(e.getPlayer()));
         //Inject now if we are using the compatibility-injector or inject if the early injector failed to inject them.
         if (shouldInject) {
@@ -60,15 +58,19 @@ public class BukkitEventProcessorInternal implements Listener {
         }
 
         boolean dependencyAvailable = VersionLookupUtils.isDependencyAvailable();
-        PacketEvents.get().getPlayerUtils().loginTime.put(player.getUniqueId(), System.currentTimeMillis());
+        PlayerSession session = PacketEvents.get().getPlayerUtils().getSession(player);
+        if (session != null) {
+            session.setLoginTime(System.currentTimeMillis());
+        }
         //A supported dependency is available, we need to first ask the dependency for the client version.
         if (dependencyAvailable) {
             //We are resolving version one tick later for extra safety. Some dependencies throw exceptions if we try too early.
             Bukkit.getScheduler().runTaskLaterAsynchronously(PacketEvents.get().getPlugin(), () -> {
                 try {
                     int protocolVersion = VersionLookupUtils.getProtocolVersion(player);
-                    ClientVersion version = ClientVersion.getClientVersion(protocolVersion);
-                    PacketEvents.get().getPlayerUtils().clientVersionsMap.put(address, version);
+                    if (session != null) {
+                        session.setClientVersion(ClientVersion.getClientVersion(protocolVersion));
+                    }
                 } catch (Exception ignored) {
 
                 }
@@ -84,16 +86,12 @@ public class BukkitEventProcessorInternal implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onQuit(PlayerQuitEvent e) {
         Player player = e.getPlayer();
-        UUID uuid = player.getUniqueId();
-        InetSocketAddress address = player.getAddress();
         //Cleanup user data
-        PacketEvents.get().getPlayerUtils().loginTime.remove(uuid);
-        PacketEvents.get().getPlayerUtils().playerPingMap.remove(uuid);
-        PacketEvents.get().getPlayerUtils().playerSmoothedPingMap.remove(uuid);
-        PacketEvents.get().getPlayerUtils().clientVersionsMap.remove(address);
-        PacketEvents.get().getPlayerUtils().tempClientVersionMap.remove(address);
-        PacketEvents.get().getPlayerUtils().keepAliveMap.remove(uuid);
-        PacketEvents.get().getPlayerUtils().channels.remove(player.getName());
+        PlayerListeners playerListeners = PacketEvents.get().getEventManager().getPlayerListeners(player);
+        if (playerListeners != null) {
+            playerListeners.unregisterAll();
+        }
+        PacketEvents.get().getPlayerUtils().unregisterSession(player);
         PacketEvents.get().getServerUtils().entityCache.remove(e.getPlayer().getEntityId());
     }
 
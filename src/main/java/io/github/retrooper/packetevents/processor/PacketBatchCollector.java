@@ -0,0 +1,78 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.processor;
+
+import io.github.retrooper.packetevents.event.impl.PacketPlayReceiveBatchEvent;
+import io.github.retrooper.packetevents.event.manager.PEEventManager;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import io.github.retrooper.packetevents.packetwrappers.ReadOnlyNMSPacket;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+
+/**
+ * Collects the incoming PLAY packets of one netty read cycle of a channel.
+ * Every channel handler owns one collector, which is only accessed by the event loop of its channel.
+ * Do NOT use this class, it is only meant to be used internally.
+ *
+ * @author retrooper
+ * @see PacketPlayReceiveBatchEvent
+ * @since 1.8
+ */
+public final class PacketBatchCollector {
+    private static final int INITIAL_CAPACITY = 16;
+    private NMSPacket[] packets = new NMSPacket[INITIAL_CAPACITY];
+    private byte[] packetIDs = new byte[INITIAL_CAPACITY];
+    private int size;
+    private long firstReceiveNanos;
+
+    void add(byte packetID, Object packet, long receiveNanos) {
+        if (size == packets.length) {
+            packets = Arrays.copyOf(packets, size * 2);
+            packetIDs = Arrays.copyOf(packetIDs, size * 2);
+        }
+        if (size == 0) {
+            firstReceiveNanos = receiveNanos;
+        }
+        //Minecraft is already processing the packet, listeners may only read it.
+        packets[size] = new ReadOnlyNMSPacket(packet);
+        packetIDs[size++] = packetID;
+    }
+
+    /**
+     * Call the {@link PacketPlayReceiveBatchEvent} with the collected packets, if there are any.
+     * This is called once the read cycle of the channel is complete.
+     *
+     * @param player  Packet sender.
+     * @param channel Netty channel of the packet sender.
+     */
+    public void flush(Player player, Object channel) {
+        if (size == 0) {
+            return;
+        }
+        //The event owns the arrays, the listeners might keep references to it.
+        PacketPlayReceiveBatchEvent event = new PacketPlayReceiveBatchEvent(player, channel, packets, packetIDs, size);
+        event.setNanoTimestamp(firstReceiveNanos);
+        packets = new NMSPacket[Math.max(INITIAL_CAPACITY, size)];
+        packetIDs = new byte[packets.length];
+        size = 0;
+        PEEventManager.callBatchEvent(event);
+    }
+}
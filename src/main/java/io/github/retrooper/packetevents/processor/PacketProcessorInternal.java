@@ -19,19 +19,27 @@
 package io.github.retrooper.packetevents.processor;
 
 import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.event.eventtypes.NMSPacketEvent;
 import io.github.retrooper.packetevents.event.impl.*;
+import io.github.retrooper.packetevents.event.manager.PEEventManager;
+import io.github.retrooper.packetevents.event.manager.PacketEventType;
+import io.github.retrooper.packetevents.event.manager.PlayerListeners;
 import io.github.retrooper.packetevents.packettype.PacketState;
 import io.github.retrooper.packetevents.packettype.PacketType;
 import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
 import io.github.retrooper.packetevents.packetwrappers.handshaking.setprotocol.WrappedPacketHandshakingInSetProtocol;
 import io.github.retrooper.packetevents.packetwrappers.login.out.success.WrappedPacketLoginOutSuccess;
+import io.github.retrooper.packetevents.packetwrappers.play.in.keepalive.WrappedPacketInKeepAlive;
+import io.github.retrooper.packetevents.packetwrappers.play.in.pong.WrappedPacketInPong;
+import io.github.retrooper.packetevents.packetwrappers.play.in.transaction.WrappedPacketInTransaction;
+import io.github.retrooper.packetevents.packetwrappers.play.out.keepalive.WrappedPacketOutKeepAlive;
+import io.github.retrooper.packetevents.utils.packetidset.PacketIdSet;
 import io.github.retrooper.packetevents.utils.player.ClientVersion;
+import io.github.retrooper.packetevents.utils.player.PlayerSession;
 import io.github.retrooper.packetevents.utils.reflection.ClassUtil;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.UUID;
-
 /**
  * Internal packet processor.
  * This class mainly manages channel caching and internal processing. Do NOT use this class, it is only meant to be used internally.
@@ -42,9 +50,290 @@ import java.util.UUID;
  */
 public class PacketProcessorInternal {
 
-    public class PacketData {
+    /**
+     * Result of processing a packet.
+     * Channel handlers keep one holder per direction and reuse it for every packet,
+     * it carries the classification of the packet from the pre to the post processing,
+     * so that a packet is classified once and processing it allocates nothing.
+     */
+    public static class PacketData {
+        /**
+         * NMS Packet to pass on, null if the event was cancelled.
+         */
         public Object packet;
+        /**
+         * Task to run once an outgoing packet has been sent, may be null.
+         */
         public Runnable postAction;
+        private PacketState state;
+        private byte packetID;
+        private boolean inUse;
+
+        /**
+         * Claim this holder for processing a packet.
+         * If this holder is still processing another packet, because a listener sent or fired a packet on the same
+         * channel while handling it, a new holder is returned instead.
+         *
+         * @return Holder to process the packet with, has to be released with {@link #release()}.
+         */
+        public PacketData acquire() {
+            if (inUse) {
+                PacketData data = new PacketData();
+                data.inUse = true;
+                return data;
+            }
+            inUse = true;
+            return this;
+        }
+
+        /**
+         * Release this holder once its packet has been processed.
+         */
+        public void release() {
+            packet = null;
+            postAction = null;
+            state = null;
+            inUse = false;
+        }
+    }
+
+    /**
+     * Packet IDs of the incoming packets PacketEvents processes internally.
+     */
+    private static final PacketIdSet INTERNAL_INBOUND_PACKETS = new PacketIdSet(
+            PacketType.Handshaking.Client.SET_PROTOCOL, PacketType.Play.Client.KEEP_ALIVE);
+    /**
+     * Packet IDs of the outgoing packets PacketEvents processes internally.
+     */
+    private static final PacketIdSet INTERNAL_OUTBOUND_PACKETS = new PacketIdSet(
+            PacketType.Login.Server.SUCCESS, PacketType.Play.Server.KEEP_ALIVE);
+    /**
+     * Packet IDs of the responses to round trip probes.
+     * They are only processed once a probe has been sent.
+     */
+    private static final PacketIdSet PROBE_RESPONSE_PACKETS = new PacketIdSet(
+            PacketType.Play.Client.TRANSACTION, PacketType.Play.Client.PONG);
+    /**
+     * Protocol state of every packet class, null for classes that are not processed.
+     * Pre-PLAY classes without a packet ID are not part of {@link PacketType#packetStateMap},
+     * their state is recognized by the name of the class, they are processed with the {@link PacketType#INVALID} packet ID.
+     */
+    private static final ClassValue<PacketState> PACKET_STATES = new ClassValue<PacketState>() {
+        @Override
+        protected PacketState computeValue(Class<?> type) {
+            PacketState state = PacketType.packetStateMap.get(type);
+            if (state != null) {
+                return state;
+            }
+            String packetName = ClassUtil.getClassSimpleName(type);
+            if (packetName.startsWith("PacketHandshaking")) {
+                return PacketState.HANDSHAKING;
+            } else if (packetName.startsWith("PacketLogin")) {
+                return PacketState.LOGIN;
+            } else if (packetName.startsWith("PacketStatus")) {
+                return PacketState.STATUS;
+            }
+            return null;
+        }
+    };
+    private volatile boolean roundTripProbes;
+
+    /**
+     * Start processing the responses to round trip probes.
+     *
+     * @see io.github.retrooper.packetevents.utils.player.PlayerUtils#sendRoundTripProbe(Player)
+     */
+    public void enableRoundTripProbes() {
+        roundTripProbes = true;
+    }
+
+    /**
+     * Classify a packet for processing it with the given holder.
+     * This resolves the packet ID and protocol state once for the pre and post processing of the packet.
+     *
+     * @param player Packet sender or receiver.
+     * @param packet NMS Packet.
+     * @param data   Holder to process the packet with.
+     */
+    public void classify(Player player, Object packet, PacketData data) {
+        data.packet = packet;
+        data.postAction = null;
+        data.packetID = getPacketId(packet);
+        data.state = getPacketState(player, packet);
+    }
+
+    /**
+     * Could PacketEvents have to process a classified incoming packet at all?
+     *
+     * @param data            Holder of the classified packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return Is any listener or internal processing interested in the packet ID?
+     * @see #isReadObserved(Object, PlayerListeners)
+     */
+    public boolean isReadObserved(PacketData data, PlayerListeners playerListeners) {
+        return isObserved(true, data.packetID, INTERNAL_INBOUND_PACKETS, playerListeners);
+    }
+
+    /**
+     * Could PacketEvents have to process a classified outgoing packet at all?
+     *
+     * @param data            Holder of the classified packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return Is any listener or internal processing interested in the packet ID?
+     * @see #isReadObserved(Object, PlayerListeners)
+     */
+    public boolean isWriteObserved(PacketData data, PlayerListeners playerListeners) {
+        return isObserved(false, data.packetID, INTERNAL_OUTBOUND_PACKETS, playerListeners);
+    }
+
+    /**
+     * Could PacketEvents have to process an incoming packet at all?
+     * This only looks up the packet ID and tests one bit of the aggregated interest of every listener,
+     * so that the channel handler can pass on packets nobody observes right away.
+     * If this returns true, {@link #isReadIntercepted(Player, Object, PlayerListeners)} decides the exact event.
+     *
+     * @param packet          NMS Packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return Is any listener or internal processing interested in the packet ID?
+     */
+    public boolean isReadObserved(Object packet, PlayerListeners playerListeners) {
+        return isObserved(true, getPacketId(packet), INTERNAL_INBOUND_PACKETS, playerListeners);
+    }
+
+    /**
+     * Could PacketEvents have to process an outgoing packet at all?
+     *
+     * @param packet          NMS Packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return Is any listener or internal processing interested in the packet ID?
+     * @see #isReadObserved(Object, PlayerListeners)
+     */
+    public boolean isWriteObserved(Object packet, PlayerListeners playerListeners) {
+        return isObserved(false, getPacketId(packet), INTERNAL_OUTBOUND_PACKETS, playerListeners);
+    }
+
+    private boolean isObserved(boolean inbound, byte packetID, PacketIdSet internalPackets, PlayerListeners playerListeners) {
+        return internalPackets.contains(packetID)
+                || (inbound && roundTripProbes && PROBE_RESPONSE_PACKETS.contains(packetID))
+                || PEEventManager.hasDirectionalInterest(inbound, packetID)
+                || (playerListeners != null && playerListeners.hasDirectionalInterest(inbound, packetID));
+    }
+
+    /**
+     * Does PacketEvents have to process an incoming packet?
+     * This is the case if a listener is interested in the packet or PacketEvents processes it internally.
+     * If not, the packet can be passed on without calling {@link #read(Player, Object, Object)}.
+     *
+     * @param player Packet sender.
+     * @param packet NMS Packet.
+     * @return Should the packet be processed?
+     */
+    public boolean isReadIntercepted(Player player, Object packet) {
+        return isReadIntercepted(player, packet, null);
+    }
+
+    /**
+     * Does PacketEvents have to process an incoming packet of a channel with scoped listeners?
+     *
+     * @param player          Packet sender.
+     * @param packet          NMS Packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return Should the packet be processed?
+     */
+    public boolean isReadIntercepted(Player player, Object packet, PlayerListeners playerListeners) {
+        return isReadIntercepted(getPacketState(player, packet), packet == null ? PacketType.INVALID : getPacketId(packet), playerListeners);
+    }
+
+    /**
+     * Does PacketEvents have to process a classified incoming packet?
+     *
+     * @param data            Holder of the classified packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return Should the packet be processed?
+     */
+    public boolean isReadIntercepted(PacketData data, PlayerListeners playerListeners) {
+        return isReadIntercepted(data.state, data.packetID, playerListeners);
+    }
+
+    private boolean isReadIntercepted(PacketState state, byte packetID, PlayerListeners playerListeners) {
+        if (state == null) {
+            return false;
+        }
+        PacketEventType type;
+        switch (state) {
+            case STATUS:
+                type = PacketEventType.STATUS_RECEIVE;
+                break;
+            case HANDSHAKING:
+                type = PacketEventType.HANDSHAKE_RECEIVE;
+                break;
+            case LOGIN:
+                type = PacketEventType.LOGIN_RECEIVE;
+                break;
+            case PLAY:
+                type = PacketEventType.PLAY_RECEIVE;
+                break;
+            default:
+                return false;
+        }
+        return isIntercepted(type, packetID, playerListeners);
+    }
+
+    /**
+     * Does PacketEvents have to process an outgoing packet?
+     * This is the case if a listener is interested in the packet or PacketEvents processes it internally.
+     * If not, the packet can be passed on without calling {@link #write(Player, Object, Object)}.
+     *
+     * @param player Packet receiver.
+     * @param packet NMS Packet.
+     * @return Should the packet be processed?
+     */
+    public boolean isWriteIntercepted(Player player, Object packet) {
+        return isWriteIntercepted(player, packet, null);
+    }
+
+    /**
+     * Does PacketEvents have to process an outgoing packet of a channel with scoped listeners?
+     *
+     * @param player          Packet receiver.
+     * @param packet          NMS Packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return Should the packet be processed?
+     */
+    public boolean isWriteIntercepted(Player player, Object packet, PlayerListeners playerListeners) {
+        return isWriteIntercepted(getPacketState(player, packet), packet == null ? PacketType.INVALID : getPacketId(packet), playerListeners);
+    }
+
+    /**
+     * Does PacketEvents have to process a classified outgoing packet?
+     *
+     * @param data            Holder of the classified packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return Should the packet be processed?
+     */
+    public boolean isWriteIntercepted(PacketData data, PlayerListeners playerListeners) {
+        return isWriteIntercepted(data.state, data.packetID, playerListeners);
+    }
+
+    private boolean isWriteIntercepted(PacketState state, byte packetID, PlayerListeners playerListeners) {
+        if (state == null) {
+            return false;
+        }
+        PacketEventType type;
+        switch (state) {
+            case STATUS:
+                type = PacketEventType.STATUS_SEND;
+                break;
+            case LOGIN:
+                type = PacketEventType.LOGIN_SEND;
+                break;
+            case PLAY:
+                type = PacketEventType.PLAY_SEND;
+                break;
+            default:
+                return false;
+        }
+        return isIntercepted(type, packetID, playerListeners);
     }
 
     /**
@@ -57,16 +346,49 @@ public class PacketProcessorInternal {
      * @return NMS Packet, null if the event was cancelled.
      */
     public PacketData read(Player player, Object channel, Object packet) {
+        return read(player, channel, packet, PacketEvents.get().getClock().nanoTime(), null);
+    }
+
+    /**
+     * Process an incoming packet that reached the channel handler at the given time.
+     *
+     * @param player          Packet sender.
+     * @param channel         Packet sender's netty channel.
+     * @param packet          NMS Packet.
+     * @param receiveNanos    {@link io.github.retrooper.packetevents.utils.clock.PacketClock#nanoTime()} at which the packet was received.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return NMS Packet, null if the event was cancelled.
+     */
+    public PacketData read(Player player, Object channel, Object packet, long receiveNanos, PlayerListeners playerListeners) {
         PacketData data = new PacketData();
-        data.packet = packet;
-        PacketState state = getPacketState(player, packet);
+        classify(player, packet, data);
+        read(player, channel, data, receiveNanos, playerListeners);
+        return data;
+    }
+
+    /**
+     * Process a classified incoming packet.
+     * The packet to pass on is stored in the holder, it is null if the event was cancelled.
+     *
+     * @param player          Packet sender.
+     * @param channel         Packet sender's netty channel.
+     * @param data            Holder of the classified packet.
+     * @param receiveNanos    {@link io.github.retrooper.packetevents.utils.clock.PacketClock#nanoTime()} at which the packet was received.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @see #classify(Player, Object, PacketData)
+     */
+    public void read(Player player, Object channel, PacketData data, long receiveNanos, PlayerListeners playerListeners) {
+        PacketState state = data.state;
         if (state == null) {
-            return data;
+            return;
         }
+        Object packet = data.packet;
         switch (state) {
             case STATUS:
                 PacketStatusReceiveEvent statusEvent = new PacketStatusReceiveEvent(channel, new NMSPacket(packet));
-                PacketEvents.get().getEventManager().callEvent(statusEvent);
+                statusEvent.assignPacketId(data.packetID);
+                statusEvent.setNanoTimestamp(receiveNanos);
+                callEvent(statusEvent, playerListeners);
                 //Apply modifications to the packet
                 packet = statusEvent.getNMSPacket().getRawNMSPacket();
                 //Process internally
@@ -78,7 +400,9 @@ public class PacketProcessorInternal {
                 break;
             case HANDSHAKING:
                 PacketHandshakeReceiveEvent handshakeEvent = new PacketHandshakeReceiveEvent(channel, new NMSPacket(packet));
-                PacketEvents.get().getEventManager().callEvent(handshakeEvent);
+                handshakeEvent.assignPacketId(data.packetID);
+                handshakeEvent.setNanoTimestamp(receiveNanos);
+                callEvent(handshakeEvent, playerListeners);
                 //Apply modifications to the packet
                 packet = handshakeEvent.getNMSPacket().getRawNMSPacket();
                 //Process internally
@@ -90,7 +414,9 @@ public class PacketProcessorInternal {
                 break;
             case LOGIN:
                 PacketLoginReceiveEvent loginEvent = new PacketLoginReceiveEvent(channel, new NMSPacket(packet));
-                PacketEvents.get().getEventManager().callEvent(loginEvent);
+                loginEvent.assignPacketId(data.packetID);
+                loginEvent.setNanoTimestamp(receiveNanos);
+                callEvent(loginEvent, playerListeners);
                 packet = loginEvent.getNMSPacket().getRawNMSPacket();
                 interceptLoginReceive(loginEvent);
                 if (loginEvent.isCancelled()) {
@@ -98,17 +424,21 @@ public class PacketProcessorInternal {
                 }
                 break;
             case PLAY:
-                PacketPlayReceiveEvent event = new PacketPlayReceiveEvent(player, channel, new NMSPacket(packet));
-                PacketEvents.get().getEventManager().callEvent(event);
-                packet = event.getNMSPacket().getRawNMSPacket();
-                interceptPlayReceive(event);
-                if (event.isCancelled()) {
-                    packet = null;
+                PacketPlayReceiveEvent event = PlayEventPool.acquireReceiveEvent(player, channel, packet, data.packetID);
+                event.setNanoTimestamp(receiveNanos);
+                try {
+                    callEvent(event, playerListeners);
+                    packet = event.getNMSPacket().getRawNMSPacket();
+                    interceptPlayReceive(event);
+                    if (event.isCancelled()) {
+                        packet = null;
+                    }
+                } finally {
+                    PlayEventPool.release(event);
                 }
                 break;
         }
-        data.packet = packet;
-        return data;
+        update(player, packet, data);
     }
 
     /**
@@ -121,16 +451,46 @@ public class PacketProcessorInternal {
      * @return NMS Packet, null if the event was cancelled.
      */
     public PacketData write(Player player, Object channel, Object packet) {
+        return write(player, channel, packet, null);
+    }
+
+    /**
+     * Process an outgoing packet of a channel with scoped listeners.
+     *
+     * @param player          Packet receiver.
+     * @param channel         Packet receiver's netty channel.
+     * @param packet          NMS Packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return NMS Packet, null if the event was cancelled.
+     */
+    public PacketData write(Player player, Object channel, Object packet, PlayerListeners playerListeners) {
         PacketData data = new PacketData();
-        data.packet = packet;
-        PacketState state = getPacketState(player, packet);
+        classify(player, packet, data);
+        write(player, channel, data, playerListeners);
+        return data;
+    }
+
+    /**
+     * Process a classified outgoing packet.
+     * The packet to pass on is stored in the holder, it is null if the event was cancelled.
+     *
+     * @param player          Packet receiver.
+     * @param channel         Packet receiver's netty channel.
+     * @param data            Holder of the classified packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @see #classify(Player, Object, PacketData)
+     */
+    public void write(Player player, Object channel, PacketData data, PlayerListeners playerListeners) {
+        PacketState state = data.state;
         if (state == null) {
-            return data;
+            return;
         }
+        Object packet = data.packet;
         switch (state) {
             case STATUS:
                 PacketStatusSendEvent statusEvent = new PacketStatusSendEvent(channel, new NMSPacket(packet));
-                PacketEvents.get().getEventManager().callEvent(statusEvent);
+                statusEvent.assignPacketId(data.packetID);
+                callEvent(statusEvent, playerListeners);
                 if (statusEvent.isPostTaskAvailable()) {
                     data.postAction = statusEvent.getPostTask();
                 }
@@ -142,12 +502,17 @@ public class PacketProcessorInternal {
                 break;
             case LOGIN:
                 PacketLoginSendEvent loginEvent = new PacketLoginSendEvent(channel, new NMSPacket(packet));
+                loginEvent.assignPacketId(data.packetID);
                 if (loginEvent.getPacketId() == PacketType.Login.Server.SUCCESS) {
                     WrappedPacketLoginOutSuccess success = new WrappedPacketLoginOutSuccess(loginEvent.getNMSPacket());
                     String username = success.getGameProfile().getName();
-                    PacketEvents.get().getPlayerUtils().channels.put(username, channel); //Cache channel
+                    PlayerSession session = PacketEvents.get().getInjector().getSession(channel);
+                    if (session != null) {
+                        //Make the channel reachable by the player's name
+                        PacketEvents.get().getPlayerUtils().registerSession(username, session);
+                    }
                 }
-                PacketEvents.get().getEventManager().callEvent(loginEvent);
+                callEvent(loginEvent, playerListeners);
                 if (loginEvent.isPostTaskAvailable()) {
                     data.postAction = loginEvent.getPostTask();
                 }
@@ -158,20 +523,72 @@ public class PacketProcessorInternal {
                 }
                 break;
             case PLAY:
-                PacketPlaySendEvent playEvent = new PacketPlaySendEvent(player, channel, new NMSPacket(packet));
-                PacketEvents.get().getEventManager().callEvent(playEvent);
-                if (playEvent.isPostTaskAvailable()) {
-                    data.postAction = playEvent.getPostTask();
-                }
-                packet = playEvent.getNMSPacket().getRawNMSPacket();
-                interceptPlaySend(playEvent);
-                if (playEvent.isCancelled()) {
-                    packet = null;
+                PacketPlaySendEvent playEvent = PlayEventPool.acquireSendEvent(player, channel, packet, data.packetID);
+                try {
+                    callEvent(playEvent, playerListeners);
+                    if (playEvent.isPostTaskAvailable()) {
+                        data.postAction = playEvent.getPostTask();
+                    }
+                    packet = playEvent.getNMSPacket().getRawNMSPacket();
+                    interceptPlaySend(playEvent);
+                    if (playEvent.isCancelled()) {
+                        packet = null;
+                    }
+                } finally {
+                    PlayEventPool.release(playEvent);
                 }
                 break;
         }
+        update(player, packet, data);
+    }
+
+    /**
+     * Store the processed packet in the holder, a packet replaced by a listener is classified again.
+     *
+     * @param player Packet sender or receiver.
+     * @param packet Processed NMS Packet, null if the event was cancelled.
+     * @param data   Holder of the packet.
+     */
+    private void update(Player player, Object packet, PacketData data) {
+        if (packet != null && packet != data.packet) {
+            data.packetID = getPacketId(packet);
+            data.state = getPacketState(player, packet);
+        }
         data.packet = packet;
-        return data;
+    }
+
+    /**
+     * Add an incoming PLAY packet that has been passed on to minecraft to the batch of the current read cycle,
+     * if a listener receives batches containing the packet.
+     *
+     * @param collector    Batch collector of the channel.
+     * @param player       Packet sender.
+     * @param packet       NMS Packet.
+     * @param receiveNanos {@link io.github.retrooper.packetevents.utils.clock.PacketClock#nanoTime()} at which the packet was received.
+     * @see PacketBatchCollector#flush(Player, Object)
+     */
+    public void collectBatch(PacketBatchCollector collector, Player player, Object packet, long receiveNanos) {
+        if (getPacketState(player, packet) == PacketState.PLAY) {
+            byte packetID = getPacketId(packet);
+            if (PEEventManager.hasBatchInterest(packetID)) {
+                collector.add(packetID, packet, receiveNanos);
+            }
+        }
+    }
+
+    /**
+     * Add a classified incoming PLAY packet that has been passed on to minecraft to the batch of the current read cycle,
+     * if a listener receives batches containing the packet.
+     *
+     * @param collector    Batch collector of the channel.
+     * @param data         Holder of the classified packet.
+     * @param receiveNanos {@link io.github.retrooper.packetevents.utils.clock.PacketClock#nanoTime()} at which the packet was received.
+     * @see PacketBatchCollector#flush(Player, Object)
+     */
+    public void collectBatch(PacketBatchCollector collector, PacketData data, long receiveNanos) {
+        if (data.state == PacketState.PLAY && PEEventManager.hasBatchInterest(data.packetID)) {
+            collector.add(data.packetID, data.packet, receiveNanos);
+        }
     }
 
     /**
@@ -183,10 +600,46 @@ public class PacketProcessorInternal {
      * @param packet  NMS Packet.
      */
     public void postRead(Player player, Object channel, Object packet) {
+        postRead(player, channel, packet, null);
+    }
+
+    /**
+     * Process an already processed PLAY packet of a channel with scoped listeners.
+     *
+     * @param player          Packet sender.
+     * @param channel         Netty channel of the packet sender.
+     * @param packet          NMS Packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     */
+    public void postRead(Player player, Object channel, Object packet, PlayerListeners playerListeners) {
         if (getPacketState(player, packet) == PacketState.PLAY) {
-            PostPacketPlayReceiveEvent event = new PostPacketPlayReceiveEvent(player, channel, new NMSPacket(packet));
-            PacketEvents.get().getEventManager().callEvent(event);
-            interceptPostPlayReceive(event);
+            postRead(player, channel, packet, getPacketId(packet), playerListeners);
+        }
+    }
+
+    /**
+     * Process a classified PLAY packet after minecraft has processed it.
+     *
+     * @param player          Packet sender.
+     * @param channel         Netty channel of the packet sender.
+     * @param data            Holder of the classified packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     */
+    public void postRead(Player player, Object channel, PacketData data, PlayerListeners playerListeners) {
+        if (data.state == PacketState.PLAY) {
+            postRead(player, channel, data.packet, data.packetID, playerListeners);
+        }
+    }
+
+    private void postRead(Player player, Object channel, Object packet, byte packetID, PlayerListeners playerListeners) {
+        if (isIntercepted(PacketEventType.POST_PLAY_RECEIVE, packetID, playerListeners)) {
+            PostPacketPlayReceiveEvent event = PlayEventPool.acquirePostReceiveEvent(player, channel, packet, packetID);
+            try {
+                callEvent(event, playerListeners);
+                interceptPostPlayReceive(event);
+            } finally {
+                PlayEventPool.release(event);
+            }
         }
     }
 
@@ -201,10 +654,46 @@ public class PacketProcessorInternal {
      * @param packet  NMS Packet.
      */
     public void postWrite(Player player, Object channel, Object packet) {
+        postWrite(player, channel, packet, null);
+    }
+
+    /**
+     * Process an already processed PLAY packet of a channel with scoped listeners.
+     *
+     * @param player          Packet receiver.
+     * @param channel         Netty channel of the packet receiver.
+     * @param packet          NMS Packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     */
+    public void postWrite(Player player, Object channel, Object packet, PlayerListeners playerListeners) {
         if (getPacketState(player, packet) == PacketState.PLAY) {
-            PostPacketPlaySendEvent event = new PostPacketPlaySendEvent(player, channel, new NMSPacket(packet));
-            PacketEvents.get().getEventManager().callEvent(event);
-            interceptPostPlaySend(event);
+            postWrite(player, channel, packet, getPacketId(packet), playerListeners);
+        }
+    }
+
+    /**
+     * Process a classified PLAY packet after minecraft has sent it.
+     *
+     * @param player          Packet receiver.
+     * @param channel         Netty channel of the packet receiver.
+     * @param data            Holder of the classified packet.
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     */
+    public void postWrite(Player player, Object channel, PacketData data, PlayerListeners playerListeners) {
+        if (data.state == PacketState.PLAY) {
+            postWrite(player, channel, data.packet, data.packetID, playerListeners);
+        }
+    }
+
+    private void postWrite(Player player, Object channel, Object packet, byte packetID, PlayerListeners playerListeners) {
+        if (isIntercepted(PacketEventType.POST_PLAY_SEND, packetID, playerListeners)) {
+            PostPacketPlaySendEvent event = PlayEventPool.acquirePostSendEvent(player, channel, packet, packetID);
+            try {
+                callEvent(event, playerListeners);
+                interceptPostPlaySend(event);
+            } finally {
+                PlayEventPool.release(event);
+            }
         }
     }
 
@@ -214,14 +703,28 @@ public class PacketProcessorInternal {
      * @param event PLAY server-bound packet event.
      */
     private void interceptPlayReceive(PacketPlayReceiveEvent event) {
-        if (event.getPacketId() == PacketType.Play.Client.KEEP_ALIVE) {
-            UUID uuid = event.getPlayer().getUniqueId();
-            long timestamp = PacketEvents.get().getPlayerUtils().keepAliveMap.getOrDefault(uuid, event.getTimestamp());
-            long currentTime = event.getTimestamp();
-            long ping = currentTime - timestamp;
-            long smoothedPing = (PacketEvents.get().getPlayerUtils().getSmoothedPing(event.getPlayer().getUniqueId()) * 3L + ping) / 4;
-            PacketEvents.get().getPlayerUtils().playerPingMap.put(uuid, (int) ping);
-            PacketEvents.get().getPlayerUtils().playerSmoothedPingMap.put(uuid, (int) smoothedPing);
+        byte packetID = event.getPacketId();
+        if (packetID == PacketType.Play.Client.KEEP_ALIVE) {
+            PlayerSession session = PacketEvents.get().getPlayerUtils().getSession(event.getPlayer());
+            if (session != null) {
+                long id = new WrappedPacketInKeepAlive(event.getNMSPacket()).getId();
+                session.getRoundTripTracker().onKeepAliveReceived(id, event.getNanoTimestamp());
+            }
+        } else if (roundTripProbes && PROBE_RESPONSE_PACKETS.contains(packetID)) {
+            long id;
+            if (packetID == PacketType.Play.Client.PONG) {
+                id = new WrappedPacketInPong(event.getNMSPacket()).getId();
+            } else {
+                WrappedPacketInTransaction transaction = new WrappedPacketInTransaction(event.getNMSPacket());
+                id = transaction.getWindowId() == 0 ? transaction.getActionNumber() : 0;
+            }
+            //Probe IDs are negative
+            if (id < 0) {
+                PlayerSession session = PacketEvents.get().getPlayerUtils().getSession(event.getPlayer());
+                if (session != null) {
+                    session.getRoundTripTracker().onProbeReceived(id, event.getNanoTimestamp());
+                }
+            }
         }
     }
 
@@ -261,8 +764,10 @@ public class PacketProcessorInternal {
         if (event.getPacketId() == PacketType.Handshaking.Client.SET_PROTOCOL) {
             WrappedPacketHandshakingInSetProtocol handshake = new WrappedPacketHandshakingInSetProtocol(event.getNMSPacket());
             int protocolVersion = handshake.getProtocolVersion();
-            ClientVersion version = ClientVersion.getClientVersion(protocolVersion);
-            PacketEvents.get().getPlayerUtils().tempClientVersionMap.put(event.getSocketAddress(), version);
+            PlayerSession session = PacketEvents.get().getInjector().getSession(event.getChannel());
+            if (session != null) {
+                session.setHandshakeClientVersion(ClientVersion.getClientVersion(protocolVersion));
+            }
         }
     }
 
@@ -303,29 +808,90 @@ public class PacketProcessorInternal {
     private void interceptPostPlaySend(PostPacketPlaySendEvent event) {
         if (event.getPacketId() == PacketType.Play.Server.KEEP_ALIVE) {
             if (event.getPlayer() != null) {
-                PacketEvents.get().getPlayerUtils().keepAliveMap.put(event.getPlayer().getUniqueId(), event.getTimestamp());
+                PlayerSession session = PacketEvents.get().getPlayerUtils().getSession(event.getPlayer());
+                if (session != null) {
+                    long id = new WrappedPacketOutKeepAlive(event.getNMSPacket()).getId();
+                    session.getRoundTripTracker().onKeepAliveSent(id, event.getNanoTimestamp());
+                }
             }
         }
     }
 
+    /**
+     * Is an event of the given type with the given packet ID processed by a listener or internally?
+     *
+     * @param type     Type of the event.
+     * @param packetID Packet ID
+     * @return Does the event have to be created?
+     */
+    private boolean isIntercepted(PacketEventType type, byte packetID) {
+        return PEEventManager.hasInterest(type, packetID) || isInternallyIntercepted(type, packetID);
+    }
+
+    /**
+     * Is an event of the given type with the given packet ID processed by a global or scoped listener or internally?
+     *
+     * @param type            Type of the event.
+     * @param packetID        Packet ID
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     * @return Does the event have to be created?
+     */
+    private boolean isIntercepted(PacketEventType type, byte packetID, PlayerListeners playerListeners) {
+        return isIntercepted(type, packetID) || (playerListeners != null && playerListeners.hasInterest(type, packetID));
+    }
+
+    /**
+     * Call an event on the global listeners and afterwards on the listeners scoped to the channel.
+     *
+     * @param event           {@link NMSPacketEvent}
+     * @param playerListeners Listeners scoped to the channel, may be null.
+     */
+    private void callEvent(NMSPacketEvent event, PlayerListeners playerListeners) {
+        //Stamp events without a receive time now, so that slow listeners do not delay their timestamp.
+        event.getNanoTimestamp();
+        PEEventManager.callPacketEvent(event, playerListeners);
+        event.flushWrappers();
+    }
+
+    /**
+     * Does PacketEvents process the event of the given type with the given packet ID internally?
+     * Every internal processing in the intercept methods has to be listed here.
+     *
+     * @param type     Type of the event.
+     * @param packetID Packet ID
+     * @return Is the event processed internally?
+     */
+    private boolean isInternallyIntercepted(PacketEventType type, byte packetID) {
+        switch (type) {
+            case HANDSHAKE_RECEIVE:
+                return packetID == PacketType.Handshaking.Client.SET_PROTOCOL;
+            case LOGIN_SEND:
+                return packetID == PacketType.Login.Server.SUCCESS;
+            case PLAY_RECEIVE:
+                return packetID == PacketType.Play.Client.KEEP_ALIVE
+                        || (roundTripProbes && PROBE_RESPONSE_PACKETS.contains(packetID));
+            case POST_PLAY_SEND:
+                return packetID == PacketType.Play.Server.KEEP_ALIVE;
+            default:
+                return false;
+        }
+    }
+
+    private byte getPacketId(Object packet) {
+        return PacketType.packetIDMap.getOrDefault(packet.getClass(), PacketType.INVALID);
+    }
+
     @Nullable
     private PacketState getPacketState(Player player, Object packet) {
         if (packet == null) {
             return null;
         }
         if (player != null) {
+            //The channel only has a player once it reached the PLAY state.
             return PacketState.PLAY;
-        } else {
-            String packetName = ClassUtil.getClassSimpleName(packet.getClass());//Cached string name so it is faster
-            if (packetName.startsWith("PacketH")) {
-                return PacketState.HANDSHAKING;
-            } else if (packetName.startsWith("PacketL")) {
-                return PacketState.LOGIN;
-            } else if (packetName.startsWith("PacketS")) {
-                return PacketState.STATUS;
-            } else {
-                return null;
-            }
         }
+        PacketState state = PACKET_STATES.get(packet.getClass());
+        //PLAY packets sent before the player has been injected are not processed.
+        return state == PacketState.PLAY ? null : state;
     }
 }
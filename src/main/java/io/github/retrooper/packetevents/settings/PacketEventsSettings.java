@@ -48,6 +48,42 @@ public class PacketEventsSettings {
      */
     private boolean bStatsEnabled = true;
 
+    /**
+     * Should PacketEvents reuse one PLAY receive and one PLAY send event per netty thread instead of
+     * creating new events for every packet?
+     * Listeners must not keep references to pooled events, their NMS packets or wrappers of them after they returned.
+     */
+    private boolean eventPooling = false;
+
+    /**
+     * Should pooled events throw an exception when they are accessed after they have been processed?
+     * This helps finding listeners that keep references to pooled events.
+     */
+    private boolean eventPoolDebug = false;
+
+    /**
+     * Should the wrappers shared through {@link io.github.retrooper.packetevents.event.eventtypes.NMSPacketEvent#getWrapper}
+     * remember the fields they read and buffer their writes until the event has been processed?
+     */
+    private boolean memoizeWrappers = false;
+
+    /**
+     * Amount of exceptions a packet listener may throw within one second before it is suspended.
+     * Zero disables suspending listeners.
+     */
+    private int listenerFailureThreshold = 0;
+
+    /**
+     * Milliseconds a suspended packet listener is skipped before it is probed again.
+     */
+    private long listenerSuspensionTime = 5000L;
+
+    /**
+     * Minimum milliseconds between two logged exceptions of the same packet listener.
+     * Exceptions thrown in between are only counted.
+     */
+    private long listenerErrorLogInterval = 10000L;
+
     /**
      * This method locks the settings.
      * If the settings are locked, you won't be able to modify any settings using the setters.
@@ -116,6 +152,87 @@ public class PacketEventsSettings {
         return this;
     }
 
+    /**
+     * This decides if PacketEvents should reuse PLAY packet events per netty thread.
+     *
+     * @param eventPooling Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings eventPooling(boolean eventPooling) {
+        if (!locked) {
+            this.eventPooling = eventPooling;
+        }
+        return this;
+    }
+
+    /**
+     * This decides if shared packet wrappers should memoize their field values.
+     * Memoizing buffers writes until the event has been processed, but every shared wrapper allocates its memo.
+     * Reading a primitive field directly is about as cheap as reading the memo,
+     * so wrappers that are only read are faster without it.
+     *
+     * @param memoizeWrappers Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings memoizeWrappers(boolean memoizeWrappers) {
+        if (!locked) {
+            this.memoizeWrappers = memoizeWrappers;
+        }
+        return this;
+    }
+
+    /**
+     * This decides if pooled events should detect being accessed after they have been processed.
+     *
+     * @param eventPoolDebug Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings eventPoolDebug(boolean eventPoolDebug) {
+        if (!locked) {
+            this.eventPoolDebug = eventPoolDebug;
+        }
+        return this;
+    }
+
+    /**
+     * This decides how many exceptions a packet listener may throw within one second before it is suspended.
+     *
+     * @param listenerFailureThreshold Value, zero to never suspend listeners.
+     * @return Settings instance.
+     */
+    public PacketEventsSettings listenerFailureThreshold(int listenerFailureThreshold) {
+        if (!locked) {
+            this.listenerFailureThreshold = listenerFailureThreshold;
+        }
+        return this;
+    }
+
+    /**
+     * This decides how long a suspended packet listener is skipped.
+     *
+     * @param listenerSuspensionTime Value in milliseconds.
+     * @return Settings instance.
+     */
+    public PacketEventsSettings listenerSuspensionTime(long listenerSuspensionTime) {
+        if (!locked) {
+            this.listenerSuspensionTime = listenerSuspensionTime;
+        }
+        return this;
+    }
+
+    /**
+     * This decides how often the exceptions of one packet listener are logged.
+     *
+     * @param listenerErrorLogInterval Value in milliseconds.
+     * @return Settings instance.
+     */
+    public PacketEventsSettings listenerErrorLogInterval(long listenerErrorLogInterval) {
+        if (!locked) {
+            this.listenerErrorLogInterval = listenerErrorLogInterval;
+        }
+        return this;
+    }
+
     /**
      * This decides if PacketEvents should inject users earlier than usual,
      * resulting in us being able to resolve client versions without the need of any dependencies.
@@ -189,4 +306,58 @@ public class PacketEventsSettings {
     public boolean isbStatsEnabled() {
         return bStatsEnabled;
     }
+
+    /**
+     * Should we reuse PLAY packet events per netty thread?
+     *
+     * @return Getter for {@link #eventPooling}
+     */
+    public boolean shouldPoolEvents() {
+        return eventPooling;
+    }
+
+    /**
+     * Should shared packet wrappers memoize their field values?
+     *
+     * @return Getter for {@link #memoizeWrappers}
+     */
+    public boolean shouldMemoizeWrappers() {
+        return memoizeWrappers;
+    }
+
+    /**
+     * Should pooled events detect being accessed after they have been processed?
+     *
+     * @return Getter for {@link #eventPoolDebug}
+     */
+    public boolean isEventPoolDebugEnabled() {
+        return eventPoolDebug;
+    }
+
+    /**
+     * How many exceptions may a packet listener throw within one second before it is suspended?
+     *
+     * @return Getter for {@link #listenerFailureThreshold}
+     */
+    public int getListenerFailureThreshold() {
+        return listenerFailureThreshold;
+    }
+
+    /**
+     * How long is a suspended packet listener skipped?
+     *
+     * @return Getter for {@link #listenerSuspensionTime}
+     */
+    public long getListenerSuspensionTime() {
+        return listenerSuspensionTime;
+    }
+
+    /**
+     * How often are the exceptions of one packet listener logged?
+     *
+     * @return Getter for {@link #listenerErrorLogInterval}
+     */
+    public long getListenerErrorLogInterval() {
+        return listenerErrorLogInterval;
+    }
 }
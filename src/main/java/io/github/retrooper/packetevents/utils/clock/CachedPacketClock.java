@@ -0,0 +1,80 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.utils.clock;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock caching the wall-clock time.
+ * A daemon thread refreshes the cached time at a fixed resolution, reading it is a single volatile read.
+ * The monotonic time is still read from {@link System#nanoTime()}, because it has to be precise.
+ * Call {@link #shutdown()} once the clock is not needed anymore.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public class CachedPacketClock implements PacketClock {
+    private final ScheduledExecutorService updater;
+    private volatile long currentTimeMillis = System.currentTimeMillis();
+
+    /**
+     * Create a cached clock refreshed every millisecond.
+     */
+    public CachedPacketClock() {
+        this(1L);
+    }
+
+    /**
+     * Create a cached clock.
+     *
+     * @param resolutionMillis Milliseconds between two refreshes of the cached time.
+     */
+    public CachedPacketClock(long resolutionMillis) {
+        if (resolutionMillis <= 0) {
+            throw new IllegalArgumentException("The resolution must be positive.");
+        }
+        this.updater = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "packetevents-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        updater.scheduleAtFixedRate(() -> currentTimeMillis = System.currentTimeMillis(),
+                resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return currentTimeMillis;
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Stop refreshing the cached time.
+     */
+    public void shutdown() {
+        updater.shutdownNow();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.utils.clock;
+
+/**
+ * Source of the timestamps of packet events.
+ * Replace the clock with {@link io.github.retrooper.packetevents.PacketEvents#setClock(PacketClock)},
+ * for example with a {@link CachedPacketClock} if reading the system clock for every event is too expensive.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public interface PacketClock {
+    /**
+     * Clock reading {@link System#currentTimeMillis()} and {@link System#nanoTime()} directly.
+     */
+    PacketClock SYSTEM = new PacketClock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    /**
+     * Current wall-clock time.
+     *
+     * @return Milliseconds since the epoch.
+     */
+    long currentTimeMillis();
+
+    /**
+     * Current value of a precise monotonic time source.
+     * Only the difference between two values is meaningful, like with {@link System#nanoTime()}.
+     *
+     * @return Monotonic time in nanoseconds.
+     */
+    long nanoTime();
+}
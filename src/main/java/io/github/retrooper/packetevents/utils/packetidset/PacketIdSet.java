@@ -0,0 +1,89 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.utils.packetidset;
+
+/**
+ * Set of packet IDs backed by four {@code long} words, one bit per possible packet ID.
+ * Checking whether a packet ID is part of the set neither boxes the packet ID nor branches.
+ * Used for the allowance filters of the packet listeners.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public final class PacketIdSet {
+    private static final int PACKET_ID_OFFSET = 128;
+    private final long[] words = new long[4];
+
+    /**
+     * Create an empty set.
+     */
+    public PacketIdSet() {
+    }
+
+    /**
+     * Create a set containing the given packet IDs.
+     *
+     * @param packetIDs Packet IDs
+     */
+    public PacketIdSet(byte... packetIDs) {
+        addAll(packetIDs);
+    }
+
+    /**
+     * Is the packet ID part of the set?
+     *
+     * @param packetID Packet ID
+     * @return Does the set contain the packet ID?
+     */
+    public boolean contains(byte packetID) {
+        int index = packetID + PACKET_ID_OFFSET;
+        return ((words[index >>> 6] >>> index) & 1L) != 0;
+    }
+
+    /**
+     * Add a packet ID to the set.
+     *
+     * @param packetID Packet ID
+     */
+    public void add(byte packetID) {
+        int index = packetID + PACKET_ID_OFFSET;
+        words[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Add multiple packet IDs to the set.
+     *
+     * @param packetIDs Packet IDs
+     */
+    public void addAll(byte... packetIDs) {
+        for (byte packetID : packetIDs) {
+            add(packetID);
+        }
+    }
+
+    /**
+     * Does the set contain no packet ID at all?
+     *
+     * @return Is the set empty?
+     */
+    public boolean isEmpty() {
+        return (words[0] | words[1] | words[2] | words[3]) == 0;
+    }
+}
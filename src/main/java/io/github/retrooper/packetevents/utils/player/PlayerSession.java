@@ -0,0 +1,120 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.utils.player;
+
+/**
+ * Data PacketEvents keeps about a single connection.
+ * Every injected channel owns one session, it is created together with the channel handler
+ * and reachable from the {@link org.bukkit.entity.Player} through {@link PlayerUtils#getSession(org.bukkit.entity.Player)}.
+ * The session is discarded together with its channel, so nothing has to be cleaned up when the player leaves.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public final class PlayerSession {
+    private volatile Object channel;
+    private volatile ClientVersion clientVersion;
+    private volatile ClientVersion handshakeClientVersion;
+    private volatile long loginTime;
+    private final RoundTripTracker roundTripTracker = new RoundTripTracker();
+
+    /**
+     * Netty channel of the connection.
+     *
+     * @return Netty channel, null if the channel handler has not been added to the pipeline yet.
+     */
+    public Object getChannel() {
+        return channel;
+    }
+
+    public void setChannel(Object channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Resolved client version of the connection.
+     *
+     * @return Client version, null if it has not been resolved yet.
+     * @see PlayerUtils#getClientVersion(org.bukkit.entity.Player)
+     */
+    public ClientVersion getClientVersion() {
+        return clientVersion;
+    }
+
+    public void setClientVersion(ClientVersion clientVersion) {
+        this.clientVersion = clientVersion;
+    }
+
+    /**
+     * Client version the client announced in the handshake packet.
+     * This might not be the actual client version of the player since plugins like ViaVersion modify the packet to allow
+     * users to join servers that aren't usually compatible with their client version.
+     * If ViaVersion or ProtocolSupport aren't available, we will trust this one.
+     *
+     * @return Client version of the handshake, null if the handshake has not been processed.
+     */
+    public ClientVersion getHandshakeClientVersion() {
+        return handshakeClientVersion;
+    }
+
+    public void setHandshakeClientVersion(ClientVersion handshakeClientVersion) {
+        this.handshakeClientVersion = handshakeClientVersion;
+    }
+
+    /**
+     * Time the player joined the server.
+     *
+     * @return Join time in milliseconds, 0 if the player has not joined yet.
+     */
+    public long getLoginTime() {
+        return loginTime;
+    }
+
+    public void setLoginTime(long loginTime) {
+        this.loginTime = loginTime;
+    }
+
+    /**
+     * Round trip time measurements of the connection.
+     *
+     * @return Round trip tracker.
+     */
+    public RoundTripTracker getRoundTripTracker() {
+        return roundTripTracker;
+    }
+
+    /**
+     * Ping PacketEvents measured on the last answered keep alive or probe.
+     *
+     * @return Ping in milliseconds, -1 if it has not been measured yet.
+     */
+    public int getPing() {
+        return roundTripTracker.getLastMillis();
+    }
+
+    /**
+     * Smoothed ping PacketEvents measured on the answered keep alives and probes.
+     *
+     * @return Smoothed ping in milliseconds, -1 if it has not been measured yet.
+     */
+    public int getSmoothedPing() {
+        return roundTripTracker.getSmoothedMillis();
+    }
+}
@@ -19,9 +19,12 @@
 package io.github.retrooper.packetevents.utils.player;
 
 import io.github.retrooper.packetevents.PacketEvents;
+import io.github.retrooper.packetevents.packettype.PacketTypeClasses;
 import io.github.retrooper.packetevents.packetwrappers.api.SendableWrapper;
 import io.github.retrooper.packetevents.packetwrappers.play.out.entitydestroy.WrappedPacketOutEntityDestroy;
 import io.github.retrooper.packetevents.packetwrappers.play.out.namedentityspawn.WrappedPacketOutNamedEntitySpawn;
+import io.github.retrooper.packetevents.packetwrappers.play.out.ping.WrappedPacketOutPing;
+import io.github.retrooper.packetevents.packetwrappers.play.out.transaction.WrappedPacketOutTransaction;
 import io.github.retrooper.packetevents.utils.gameprofile.GameProfileUtil;
 import io.github.retrooper.packetevents.utils.gameprofile.WrappedGameProfile;
 import io.github.retrooper.packetevents.utils.geyser.GeyserUtils;
@@ -35,7 +38,6 @@ import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.net.InetSocketAddress;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -48,22 +50,48 @@ import java.util.concurrent.ConcurrentHashMap;
  * @since 1.6.8
  */
 public final class PlayerUtils {
-    public final Map<UUID, Long> loginTime = new ConcurrentHashMap<>();
-    public final Map<UUID, Integer> playerPingMap = new ConcurrentHashMap<>();
-    public final Map<UUID, Integer> playerSmoothedPingMap = new ConcurrentHashMap<>();
-    public final Map<InetSocketAddress, ClientVersion> clientVersionsMap = new ConcurrentHashMap<>();
-    public final Map<UUID, Long> keepAliveMap = new ConcurrentHashMap<>();
-    public final Map<String, Object> channels = new ConcurrentHashMap<>();
     /**
-     * This is a temporary client version.
-     * This is the client version we receive from the handshaking packet.
-     * This might not be the actual client version of the player since plugins like ViaVersion modify the packet to allow
-     * users to join servers that aren't usually compatible with their client version.(Described in more detail above)
-     * We will compare this version(received from the packet) and the one from the ViaVersion API and the one from the ProtocolSupport API.
-     * ProtocolSupport compatibility might not work.
-     * If ViaVersion or ProtocolSupport aren't available, we will trust this one.
+     * Sessions of the connections that have logged in, by player name.
      */
-    public final Map<InetSocketAddress, ClientVersion> tempClientVersionMap = new ConcurrentHashMap<>();
+    private final Map<String, PlayerSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Get the session of a player's connection.
+     *
+     * @param player Target player.
+     * @return Session, null if the player's channel has not been injected.
+     */
+    @Nullable
+    public PlayerSession getSession(@NotNull Player player) {
+        PlayerSession session = sessions.get(player.getName());
+        if (session == null) {
+            Object channel = NMSUtils.getChannel(player);
+            if (channel != null) {
+                session = PacketEvents.get().getInjector().getSession(channel);
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Make a session reachable by the name of the player it belongs to.
+     * PacketEvents does this as soon as the name of a connection is known.
+     *
+     * @param name    Player name.
+     * @param session Session of the player's connection.
+     */
+    public void registerSession(@NotNull String name, @NotNull PlayerSession session) {
+        sessions.put(name, session);
+    }
+
+    /**
+     * Forget the session of a player that left the server.
+     *
+     * @param player Target player.
+     */
+    public void unregisterSession(@NotNull Player player) {
+        sessions.remove(player.getName());
+    }
 
     /**
      * Use reflection to read the ping value NMS calculates for the player.
@@ -84,7 +112,7 @@ public final class PlayerUtils {
      * @return Non-smoothed ping.
      */
     public int getPing(Player player) {
-        return getPing(player.getUniqueId());
+        return getPing(getSession(player), false);
     }
 
     /**
@@ -95,7 +123,7 @@ public final class PlayerUtils {
      */
     @Deprecated
     public int getSmoothedPing(final Player player) {
-        return getSmoothedPing(player.getUniqueId());
+        return getPing(getSession(player), true);
     }
 
     //TODO Don't calculate ping internally, use NMS' smoothed ping. On 1.17 use the Player#getPing which you contributed.
@@ -109,15 +137,8 @@ public final class PlayerUtils {
      */
     @Deprecated
     public int getPing(UUID uuid) {
-        Integer ping = playerPingMap.get(uuid);
-        if (ping == null) {
-            Long joinTime = loginTime.get(uuid);
-            if (joinTime == null) {
-                return 0;
-            }
-            return (int) (System.currentTimeMillis() - joinTime);
-        }
-        return ping;
+        Player player = Bukkit.getPlayer(uuid);
+        return player == null ? 0 : getPing(player);
     }
 
     /**
@@ -128,15 +149,23 @@ public final class PlayerUtils {
      */
     @Deprecated
     public int getSmoothedPing(UUID uuid) {
-        Integer smoothedPing = playerSmoothedPingMap.get(uuid);
-        if (smoothedPing == null) {
-            Long joinTime = loginTime.get(uuid);
-            if (joinTime == null) {
+        Player player = Bukkit.getPlayer(uuid);
+        return player == null ? 0 : getSmoothedPing(player);
+    }
+
+    private int getPing(@Nullable PlayerSession session, boolean smoothed) {
+        if (session == null) {
+            return 0;
+        }
+        int ping = smoothed ? session.getSmoothedPing() : session.getPing();
+        if (ping < 0) {
+            long joinTime = session.getLoginTime();
+            if (joinTime == 0L) {
                 return 0;
             }
             return (int) (System.currentTimeMillis() - joinTime);
         }
-        return smoothedPing;
+        return ping;
     }
 
     /**
@@ -144,21 +173,18 @@ public final class PlayerUtils {
      *
      * @param player Target player.
      * @return Client Version.
-     * @see #clientVersionsMap
+     * @see PlayerSession#getClientVersion()
      */
     @NotNull
     public ClientVersion getClientVersion(@NotNull final Player player) {
-        if (player.getAddress() == null) {
-            return ClientVersion.UNKNOWN;
-        }
-        ClientVersion version = clientVersionsMap.get(player.getAddress());
+        PlayerSession session = getSession(player);
+        ClientVersion version = session == null ? null : session.getClientVersion();
         // If a player's version didn't resolve, we should try and resolve it again
         if (version == null || !version.isResolved()) {
             //Prioritize asking ViaVersion and ProtocolSupport as they modify the protocol version in the packet we access it from.
             if (VersionLookupUtils.isDependencyAvailable()) {
                 try {
                     version = ClientVersion.getClientVersion(VersionLookupUtils.getProtocolVersion(player));
-                    clientVersionsMap.put(player.getAddress(), version);
                 } catch (Exception ex) {
                     //Try ask the dependency again the next time, for now it is temporarily unresolved...
                     //Temporary unresolved means there is still hope, an exception was thrown on the dependency's end.
@@ -166,7 +192,7 @@ public final class PlayerUtils {
                 }
             } else {
                 //We can trust the version we retrieved from the packet.
-                version = tempClientVersionMap.get(player.getAddress());
+                version = session == null ? null : session.getHandshakeClientVersion();
                 if (version == null) {
                     //We couldn't snatch that version from the packet.
                     int protocolVersion;
@@ -182,12 +208,41 @@ public final class PlayerUtils {
                     }
                     version = ClientVersion.getClientVersion(protocolVersion);
                 }
-                clientVersionsMap.put(player.getAddress(), version);
+            }
+            if (session != null) {
+                session.setClientVersion(version);
             }
         }
         return version;
     }
 
+    /**
+     * Send a probe that measures the round trip time of the player's connection in between keep alives.
+     * On 1.17+ servers this is a ping packet, on older servers a transaction packet of the player inventory
+     * that the client has to confirm.
+     * The response is matched by the {@link RoundTripTracker} of the player's session.
+     *
+     * @param player Target player.
+     * @see PlayerSession#getRoundTripTracker()
+     */
+    public void sendRoundTripProbe(Player player) {
+        PlayerSession session = getSession(player);
+        if (session == null) {
+            return;
+        }
+        RoundTripTracker tracker = session.getRoundTripTracker();
+        short id = tracker.nextProbeId();
+        SendableWrapper probe;
+        if (PacketTypeClasses.Play.Server.PING != null) {
+            probe = new WrappedPacketOutPing(id);
+        } else {
+            probe = new WrappedPacketOutTransaction(0, id, false);
+        }
+        PacketEvents.get().getInternalPacketProcessor().enableRoundTripProbes();
+        tracker.onProbeSent(id, PacketEvents.get().getClock().nanoTime());
+        sendPacket(player, probe);
+    }
+
     public void writePacket(Player player, SendableWrapper wrapper) {
         try {
             Object nmsPacket = wrapper.asNMSPacket();
@@ -278,13 +333,10 @@ public final class PlayerUtils {
 
     @Nullable
     public Object getChannel(Player player) {
-        String name = player.getName();
-        Object channel = channels.get(name);
+        PlayerSession session = sessions.get(player.getName());
+        Object channel = session == null ? null : session.getChannel();
         if (channel == null) {
             channel = NMSUtils.getChannel(player);
-            if (channel != null) {
-                channels.put(name, channel);
-            }
         }
         return channel;
     }
@@ -0,0 +1,260 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.utils.player;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip time measurements of a connection.
+ * Every keep alive (and probe) PacketEvents sees being sent is remembered with its ID and send time
+ * in a small ring buffer, so that a response is matched with the exact request it answers,
+ * even if several requests are outstanding at the same time.
+ * Requests the client skipped, or that fell out of the buffer, count as lost.
+ * All times are {@link io.github.retrooper.packetevents.utils.clock.PacketClock#nanoTime()} values,
+ * nothing is allocated while tracking.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public final class RoundTripTracker {
+    /**
+     * Maximum amount of requests that can be outstanding at the same time.
+     */
+    private static final int CAPACITY = 16;
+    private static final byte KEEP_ALIVE = 0, PROBE = 1;
+    private final long[] ids = new long[CAPACITY];
+    private final long[] sendTimes = new long[CAPACITY];
+    private final byte[] kinds = new byte[CAPACITY];
+    private int head;
+    private int size;
+    private short probeSequence;
+
+    private volatile long lastNanos = -1L;
+    private volatile long smoothedNanos = -1L;
+    private volatile long minNanos = -1L;
+    private volatile long jitterNanos;
+    private volatile long sent;
+    private volatile long lost;
+
+    /**
+     * Remember a keep alive that has been sent to the client.
+     *
+     * @param id       Keep alive ID.
+     * @param sendTime Time the keep alive was sent.
+     */
+    public void onKeepAliveSent(long id, long sendTime) {
+        add(KEEP_ALIVE, id, sendTime);
+    }
+
+    /**
+     * Match a keep alive response with the keep alive it answers.
+     *
+     * @param id          Keep alive ID.
+     * @param receiveTime Time the response was received.
+     * @return Round trip time in nanoseconds, -1 if no outstanding keep alive has the ID.
+     */
+    public long onKeepAliveReceived(long id, long receiveTime) {
+        return complete(KEEP_ALIVE, id, receiveTime);
+    }
+
+    /**
+     * Reserve the ID of the next probe.
+     * Probe IDs are negative so that they don't collide with the transactions of the server.
+     *
+     * @return Probe ID.
+     */
+    public synchronized short nextProbeId() {
+        probeSequence = (short) ((probeSequence + 1) & Short.MAX_VALUE);
+        return (short) (-1 - probeSequence);
+    }
+
+    /**
+     * Remember a probe that has been sent to the client.
+     *
+     * @param id       Probe ID.
+     * @param sendTime Time the probe was sent.
+     */
+    public void onProbeSent(long id, long sendTime) {
+        add(PROBE, id, sendTime);
+    }
+
+    /**
+     * Match a probe response with the probe it answers.
+     *
+     * @param id          Probe ID.
+     * @param receiveTime Time the response was received.
+     * @return Round trip time in nanoseconds, -1 if no outstanding probe has the ID.
+     */
+    public long onProbeReceived(long id, long receiveTime) {
+        return complete(PROBE, id, receiveTime);
+    }
+
+    private synchronized void add(byte kind, long id, long sendTime) {
+        if (size == CAPACITY) {
+            //The oldest request will never be matched anymore.
+            head = (head + 1) % CAPACITY;
+            size--;
+            lost++;
+        }
+        int index = (head + size) % CAPACITY;
+        ids[index] = id;
+        sendTimes[index] = sendTime;
+        kinds[index] = kind;
+        size++;
+        sent++;
+    }
+
+    private synchronized long complete(byte kind, long id, long receiveTime) {
+        int match = -1;
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % CAPACITY;
+            if (kinds[index] == kind && ids[index] == id) {
+                match = i;
+                break;
+            }
+        }
+        if (match == -1) {
+            return -1L;
+        }
+        long rtt = Math.max(0L, receiveTime - sendTimes[(head + match) % CAPACITY]);
+        //The client answers requests of the same kind in order, older ones of that kind were skipped.
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % CAPACITY;
+            if (i == match) {
+                continue;
+            }
+            if (i < match && kinds[index] == kind) {
+                lost++;
+                continue;
+            }
+            int target = (head + kept++) % CAPACITY;
+            ids[target] = ids[index];
+            sendTimes[target] = sendTimes[index];
+            kinds[target] = kinds[index];
+        }
+        size = kept;
+        record(rtt);
+        return rtt;
+    }
+
+    private void record(long rtt) {
+        long smoothed = smoothedNanos;
+        if (smoothed < 0L) {
+            smoothedNanos = rtt;
+            jitterNanos = rtt / 2;
+        } else {
+            //Same gains TCP uses for its smoothed round trip time and its variation.
+            jitterNanos += (Math.abs(rtt - smoothed) - jitterNanos) / 4;
+            smoothedNanos = smoothed + (rtt - smoothed) / 8;
+        }
+        long min = minNanos;
+        if (min < 0L || rtt < min) {
+            minNanos = rtt;
+        }
+        lastNanos = rtt;
+    }
+
+    /**
+     * Round trip time of the last answered request.
+     *
+     * @return Round trip time in nanoseconds, -1 if nothing has been measured yet.
+     */
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    /**
+     * Exponentially weighted moving average of the round trip times.
+     *
+     * @return Smoothed round trip time in nanoseconds, -1 if nothing has been measured yet.
+     */
+    public long getSmoothedNanos() {
+        return smoothedNanos;
+    }
+
+    /**
+     * Lowest round trip time measured so far.
+     *
+     * @return Minimum round trip time in nanoseconds, -1 if nothing has been measured yet.
+     */
+    public long getMinNanos() {
+        return minNanos;
+    }
+
+    /**
+     * Smoothed mean deviation of the round trip times from their average.
+     *
+     * @return Jitter in nanoseconds.
+     */
+    public long getJitterNanos() {
+        return jitterNanos;
+    }
+
+    /**
+     * Round trip time of the last answered request.
+     *
+     * @return Round trip time in milliseconds, -1 if nothing has been measured yet.
+     */
+    public int getLastMillis() {
+        return toMillis(lastNanos);
+    }
+
+    /**
+     * Exponentially weighted moving average of the round trip times.
+     *
+     * @return Smoothed round trip time in milliseconds, -1 if nothing has been measured yet.
+     */
+    public int getSmoothedMillis() {
+        return toMillis(smoothedNanos);
+    }
+
+    /**
+     * Amount of requests that have been sent.
+     *
+     * @return Sent requests.
+     */
+    public long getSent() {
+        return sent;
+    }
+
+    /**
+     * Amount of requests that will never be answered.
+     *
+     * @return Lost requests.
+     */
+    public long getLost() {
+        return lost;
+    }
+
+    /**
+     * Ratio of lost requests to sent requests.
+     *
+     * @return Loss ratio between 0 and 1.
+     */
+    public double getLoss() {
+        long sent = this.sent;
+        return sent == 0L ? 0.0 : (double) lost / sent;
+    }
+
+    private static int toMillis(long nanos) {
+        return nanos < 0L ? -1 : (int) TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
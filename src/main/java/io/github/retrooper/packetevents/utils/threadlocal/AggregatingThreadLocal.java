@@ -0,0 +1,139 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.retrooper.packetevents.utils.threadlocal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per thread storage whose values can be aggregated, like a {@link ThreadLocal} that also knows the values of other threads.
+ * Every thread calling {@link #get()} gets its own value on first access, no matter whether it is a netty event loop.
+ * Packet listeners mostly run on the netty event loops, so they can update counters and caches
+ * without contending with each other. The main thread (or any other thread) reads totals with the aggregation methods.
+ *
+ * Every thread that ever called {@link #get()} keeps its value in the aggregations until {@link #purgeTerminated()}
+ * drops it after the thread has terminated, so avoid calling {@link #get()} from short-lived threads.
+ * Aggregating reads the values of other threads without synchronization.
+ * Use values that are safe to read concurrently, for example with volatile fields,
+ * and expect totals to be slightly behind the writing threads.
+ *
+ * @param <T> Type of the values.
+ * @author retrooper
+ * @since 1.8
+ */
+public final class AggregatingThreadLocal<T> {
+    private final Supplier<? extends T> initialValue;
+    private final Map<Thread, T> values = new ConcurrentHashMap<>();
+    private final ThreadLocal<T> local = new ThreadLocal<T>() {
+        @Override
+        protected T initialValue() {
+            T value = AggregatingThreadLocal.this.initialValue.get();
+            values.put(Thread.currentThread(), value);
+            return value;
+        }
+    };
+
+    private AggregatingThreadLocal(Supplier<? extends T> initialValue) {
+        this.initialValue = initialValue;
+    }
+
+    /**
+     * Create per thread storage.
+     *
+     * @param initialValue Creates the value of a thread on its first access.
+     * @param <T>          Type of the values.
+     * @return Per thread storage.
+     */
+    public static <T> AggregatingThreadLocal<T> withInitial(Supplier<? extends T> initialValue) {
+        return new AggregatingThreadLocal<>(initialValue);
+    }
+
+    /**
+     * Get the value of the current thread, it is created and tracked on the first call of the thread.
+     *
+     * @return Value of the current thread.
+     */
+    public T get() {
+        return local.get();
+    }
+
+    /**
+     * Current values of all threads.
+     *
+     * @return Unmodifiable copy of the values by thread.
+     */
+    public Map<Thread, T> snapshot() {
+        return Collections.unmodifiableMap(new IdentityHashMap<>(values));
+    }
+
+    /**
+     * Current values of all threads.
+     *
+     * @return Copy of the values.
+     */
+    public List<T> values() {
+        return new ArrayList<>(values.values());
+    }
+
+    /**
+     * Sum a number over the values of all threads.
+     *
+     * @param mapper Reads the number of a value.
+     * @return Sum of the numbers.
+     */
+    public long sum(ToLongFunction<? super T> mapper) {
+        long sum = 0;
+        for (T value : values.values()) {
+            sum += mapper.applyAsLong(value);
+        }
+        return sum;
+    }
+
+    /**
+     * Merge the values of all threads into one result.
+     *
+     * @param identity Initial result.
+     * @param merger   Merges a value into the result.
+     * @param <R>      Type of the result.
+     * @return Merged result.
+     */
+    public <R> R merge(R identity, BiFunction<R, ? super T, R> merger) {
+        R result = identity;
+        for (T value : values.values()) {
+            result = merger.apply(result, value);
+        }
+        return result;
+    }
+
+    /**
+     * Drop the values of threads that have terminated, for example event loops that have been shut down.
+     * The values of terminated threads are still part of aggregations until they are purged.
+     */
+    public void purgeTerminated() {
+        values.keySet().removeIf(thread -> !thread.isAlive());
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2021 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.event.manager;
+
+import io.github.retrooper.packetevents.event.PacketListener;
+import io.github.retrooper.packetevents.event.PacketListenerAbstract;
+import io.github.retrooper.packetevents.event.PacketListenerPriority;
+import io.github.retrooper.packetevents.event.annotation.PacketHandler;
+import io.github.retrooper.packetevents.event.impl.PacketStatusReceiveEvent;
+import io.github.retrooper.packetevents.packetwrappers.NMSPacket;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Dispatches events from many threads while listeners are continuously registered and unregistered.
+ * The dispatching threads read the published listener snapshots without locking,
+ * so every event has to reach the permanently registered listeners exactly once, in priority order,
+ * and unregistered listeners must not be called anymore.
+ *
+ * @author retrooper
+ * @since 1.8
+ */
+public class EventManagerConcurrencyTest {
+    private static final int DISPATCH_THREADS = 16;
+    private static final int REGISTRATION_THREADS = 2;
+    private static final int EVENTS_PER_THREAD = 20_000;
+    private static final byte PACKET_ID_COUNT = 4;
+    private static final Object PACKET = new Object();
+    /**
+     * Priority of the last listener called on the dispatching thread, to check the order of the listeners.
+     */
+    private static final ThreadLocal<Integer> LAST_PRIORITY = ThreadLocal.withInitial(() -> -1);
+
+    @Test
+    public void modernEventManagerDispatchesWhileListenersChange() throws Exception {
+        EventManagerModern manager = new EventManagerModern();
+        Violations violations = new Violations();
+        CountingListener lowest = new CountingListener(PacketListenerPriority.LOWEST, false, false, violations);
+        CountingListener monitor = new CountingListener(PacketListenerPriority.MONITOR, false, false, violations);
+        manager.registerListener(lowest);
+        manager.registerListener(monitor);
+
+        List<CountingListener> churned = run(event -> {
+            LAST_PRIORITY.set(-1);
+            manager.callEvent(event);
+        }, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            PacketListenerPriority[] priorities = PacketListenerPriority.values();
+            CountingListener listener = new CountingListener(priorities[random.nextInt(priorities.length)],
+                    random.nextBoolean(), random.nextInt(4) == 0, violations);
+            if (random.nextBoolean()) {
+                listener.addClientSidedStatusFilter((byte) random.nextInt(PACKET_ID_COUNT));
+            }
+            manager.registerListener(listener);
+            Thread.yield();
+            manager.unregisterListener(listener);
+            return listener;
+        });
+
+        long dispatched = (long) DISPATCH_THREADS * EVENTS_PER_THREAD;
+        assertEquals(dispatched, lowest.calls.sum());
+        assertEquals(dispatched, monitor.calls.sum());
+        violations.assertNone();
+        assertUnregisteredListenersAreNotCalled(churned, event -> manager.callEvent(event));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void legacyEventManagerDispatchesWhileListenersChange() throws Exception {
+        EventManagerLegacy manager = new EventManagerLegacy();
+        CountingLegacyListener stable = new CountingLegacyListener();
+        manager.registerListener(stable);
+        byte priority = (byte) (PacketListenerPriority.LOWEST.getId() - 1);
+
+        List<CountingLegacyListener> churned = run(event -> manager.callEvent(event, priority), () -> {
+            CountingLegacyListener listener = new CountingLegacyListener();
+            manager.registerListener(listener);
+            Thread.yield();
+            manager.unregisterListener(listener);
+            return listener;
+        });
+
+        assertEquals((long) DISPATCH_THREADS * EVENTS_PER_THREAD, stable.calls.sum());
+        assertUnregisteredLegacyListenersAreNotCalled(churned, event -> manager.callEvent(event, priority));
+    }
+
+    /**
+     * Dispatch events on the dispatching threads while the registration threads churn listeners.
+     *
+     * @param dispatcher Dispatches an event.
+     * @param churn      Registers and unregisters a listener, returns the listener.
+     * @param <L>        Type of the churned listeners.
+     * @return Every churned listener, none of them is registered anymore.
+     */
+    private static <L> List<L> run(Consumer<PacketStatusReceiveEvent> dispatcher, Supplier<L> churn) throws Exception {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        Queue<L> churned = new ConcurrentLinkedQueue<>();
+        AtomicBoolean dispatching = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> registrationThreads = new ArrayList<>();
+        for (int i = 0; i < REGISTRATION_THREADS; i++) {
+            registrationThreads.add(startThread(failures, () -> {
+                await(start);
+                while (dispatching.get()) {
+                    churned.add(churn.get());
+                }
+            }));
+        }
+        List<Thread> dispatchThreads = new ArrayList<>();
+        for (int i = 0; i < DISPATCH_THREADS; i++) {
+            dispatchThreads.add(startThread(failures, () -> {
+                await(start);
+                for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                    dispatcher.accept(createEvent((byte) (j % PACKET_ID_COUNT)));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : dispatchThreads) {
+            thread.join();
+        }
+        dispatching.set(false);
+        for (Thread thread : registrationThreads) {
+            thread.join();
+        }
+        if (!failures.isEmpty()) {
+            AssertionError error = new AssertionError(failures.size() + " threads failed");
+            for (Throwable failure : failures) {
+                error.addSuppressed(failure);
+            }
+            throw error;
+        }
+        assertTrue("No listener has been churned", !churned.isEmpty());
+        return new ArrayList<>(churned);
+    }
+
+    private static void assertUnregisteredListenersAreNotCalled(List<CountingListener> listeners,
+                                                                Consumer<PacketStatusReceiveEvent> dispatcher) {
+        long calls = 0;
+        for (CountingListener listener : listeners) {
+            calls += listener.calls.sum();
+        }
+        for (byte packetID = 0; packetID < PACKET_ID_COUNT; packetID++) {
+            dispatcher.accept(createEvent(packetID));
+        }
+        long callsAfterwards = 0;
+        for (CountingListener listener : listeners) {
+            callsAfterwards += listener.calls.sum();
+        }
+        assertEquals(calls, callsAfterwards);
+    }
+
+    private static void assertUnregisteredLegacyListenersAreNotCalled(List<CountingLegacyListener> listeners,
+                                                                      Consumer<PacketStatusReceiveEvent> dispatcher) {
+        long calls = 0;
+        for (CountingLegacyListener listener : listeners) {
+            calls += listener.calls.sum();
+        }
+        for (byte packetID = 0; packetID < PACKET_ID_COUNT; packetID++) {
+            dispatcher.accept(createEvent(packetID));
+        }
+        long callsAfterwards = 0;
+        for (CountingLegacyListener listener : listeners) {
+            callsAfterwards += listener.calls.sum();
+        }
+        assertEquals(calls, callsAfterwards);
+    }
+
+    private static PacketStatusReceiveEvent createEvent(byte packetID) {
+        PacketStatusReceiveEvent event = new PacketStatusReceiveEvent(null, new NMSPacket(PACKET));
+        event.assignPacketId(packetID);
+        return event;
+    }
+
+    private static Thread startThread(Queue<Throwable> failures, Runnable task) {
+        Thread thread = new Thread(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                failures.add(t);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Listeners must not throw, the fault handler would swallow the exception,
+     * so they count what they did wrong instead.
+     */
+    private static final class Violations {
+        private final LongAdder order = new LongAdder();
+        private final LongAdder filter = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+
+        private void assertNone() {
+            assertEquals("Listeners called out of priority order", 0, order.sum());
+            assertEquals("Listeners called for a filtered packet ID", 0, filter.sum());
+            assertEquals("Listeners ignoring cancelled events called for a cancelled event", 0, cancelled.sum());
+        }
+    }
+
+    private static final class CountingListener extends PacketListenerAbstract {
+        private final LongAdder calls = new LongAdder();
+        private final boolean cancel;
+        private final Violations violations;
+
+        private CountingListener(PacketListenerPriority priority, boolean ignoreCancelled, boolean cancel,
+                                 Violations violations) {
+            super(priority, ignoreCancelled);
+            this.cancel = cancel;
+            this.violations = violations;
+        }
+
+        @Override
+        public void onPacketStatusReceive(PacketStatusReceiveEvent event) {
+            calls.increment();
+            int priority = getPriority().getId();
+            if (priority < LAST_PRIORITY.get()) {
+                violations.order.increment();
+            }
+            LAST_PRIORITY.set(priority);
+            if (getClientSidedStatusAllowance() != null && !getClientSidedStatusAllowance().contains(event.getPacketId())) {
+                violations.filter.increment();
+            }
+            if (isIgnoringCancelled() && event.isCancelled()) {
+                violations.cancelled.increment();
+            }
+            if (cancel) {
+                event.setCancelled(true);
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    public static final class CountingLegacyListener implements PacketListener {
+        private final LongAdder calls = new LongAdder();
+
+        @PacketHandler
+        public void onStatusReceive(PacketStatusReceiveEvent event) {
+            calls.increment();
+        }
+    }
+}